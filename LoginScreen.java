@@ -3,22 +3,82 @@ package net.runelite.client.ui;
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.*;
+import java.awt.font.FontRenderContext;
+import java.awt.font.LineBreakMeasurer;
+import java.awt.font.LineMetrics;
+import java.awt.font.TextAttribute;
+import java.awt.font.TextLayout;
+import java.awt.geom.Rectangle2D;
 import java.awt.geom.RoundRectangle2D;
+import java.awt.image.BaseMultiResolutionImage;
 import java.awt.image.BufferedImage;
+import java.awt.image.VolatileImage;
+import java.beans.PropertyChangeListener;
 import java.io.*;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.management.ManagementFactory;
 import java.net.HttpURLConnection;
+import java.net.MalformedURLException;
+import java.net.SocketTimeoutException;
 import java.net.URI;
 import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.AttributedString;
 import java.util.List;
+import java.util.Locale;
 import java.util.ArrayList;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.jar.Manifest;
 import java.util.prefs.Preferences;
-
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
 import lombok.extern.slf4j.Slf4j;
-import net.runelite.client.util.ImageUtil;
+import javax.imageio.ImageIO;
 import javax.swing.border.EmptyBorder;
+import javax.swing.event.ChangeListener;
 import javax.swing.plaf.basic.BasicScrollBarUI;
 
 @Slf4j
@@ -27,6 +87,12 @@ public class LoginScreen extends JFrame {
     private static final int HEIGHT = 600;
     private static final int CORNER_RADIUS = 20;
     private static final int PAD = 20;
+    private static final int PARTICLE_COUNT = Integer.getInteger("valkarin.particles", 50);
+
+    // Static labels, measured once
+    private static final StaticText PLAY_LABEL = new StaticText("PLAY NOW", Styles.PLAY_FONT);
+    private static final StaticText MINIMIZE_LABEL = new StaticText("−", Styles.MINIMIZE_FONT);
+    private static final StaticText CLOSE_LABEL = new StaticText("×", Styles.CLOSE_FONT);
     private static final String WINDOW_POSITION_X = "window_x";
     private static final String WINDOW_POSITION_Y = "window_y";
 
@@ -36,373 +102,4482 @@ public class LoginScreen extends JFrame {
     private final Color buttonEndColor = new Color(236, 72, 153);
     private final Color sidebarColor = new Color(24, 31, 46);
     private final Runnable onPlayCallback;
-    private final List<Particle> particles = new ArrayList<>();
-    private Timer particleTimer;
+    private final long createdAt = System.nanoTime();
+    private final Prefetch<?> prefetch;
+    private final ParticleField particles = new ParticleField(PARTICLE_COUNT);
+    private final DirtyRegion particleDirtyRegion = new DirtyRegion();
+    private final AnimationClock animationClock = new AnimationClock();
+    private final RenderQuality renderQuality = new RenderQuality(this::onRenderQualityChanged);
+    private AnimationClock.Animation particleAnimation;
     private final Preferences prefs = Preferences.userNodeForPackage(LoginScreen.class);
-    private Timer loadingTimer;
-    private boolean isLoading = false;
-    private float loadingAngle = 0;
     private JLabel updateStatusLabel;
+    private PatchNotesView patchNotesView;
+    private URL patchNotesNextPage;
+    private boolean patchNotesLoading;
+    private final Consumer<UpdateService.UpdateCheck> updateListener = this::onBackgroundUpdateCheck;
+    private final PropertyChangeListener themeListener = e -> {
+        if ("lookAndFeel".equals(e.getPropertyName())) {
+            RenderCache.invalidateAll();
+            repaint();
+        }
+    };
 
     private static final String VERSION_URL = "https://valkarin.net/version.txt";
     private static final String MANIFEST_URL = "https://valkarin.net/manifest.json";
+    private static final String PATCH_NOTES_URL = "https://valkarin.net/patchnotes.json";
     private static final String UPDATE_BASE_URL = "https://valkarin.net/updates/";
     private static final String LOCAL_VERSION_FILE = "version.txt";
+    private static final String CACHE_DIR = "launcher-cache";
+    private static final String SELF_UPDATE_URL = "https://valkarin.net/download/valkarin.jar";
+    private static final String SELF_UPDATE_PATCH_URL = "https://valkarin.net/download/patches/";
+
+    // Download tuning
+    private static final int DOWNLOAD_WORKERS = 4;
+    private static final int MAX_CONNECTIONS_PER_HOST = 4;
+    private static final int CONNECT_TIMEOUT_MS = 10_000;
+    private static final int READ_TIMEOUT_MS = 30_000;
+    private static final int VERSION_CHECK_TIMEOUT_MS = 5_000;
+    private static final long FIRST_CHECK_PROBE_WAIT_MS = 1_000;
+    private static final long UPDATE_POLL_INTERVAL_MINUTES = 30; // 0 disables background polling
+
+    private static final String DIAGNOSTICS_FILE = "launcher-diagnostics.json";
+    private static final Diagnostics DIAGNOSTICS = new Diagnostics();
+    private static final Mirrors MIRRORS = Mirrors.fromSystemProperties();
+    private static final MetadataCache METADATA_CACHE = new MetadataCache(new File(CACHE_DIR, "http"));
+    private static final UpdateService UPDATE_SERVICE = new UpdateService();
+
+    private final DownloadEngine downloadEngine = new DownloadEngine(DOWNLOAD_WORKERS, MAX_CONNECTIONS_PER_HOST);
+
+    /**
+     * Built-in performance instrumentation: paint time histograms per component, an Event Dispatch
+     * Thread stall detector that samples the EDT's stack when an event runs long, and animation timer
+     * jitter. Everything is written out as JSON with Ctrl+Shift+D. With
+     * {@code -Dvalkarin.diagnostics=true} the stall detector is installed too, and the dump is also
+     * written on exit; without it the launcher runs no watchdog thread.
+     */
+    static final class Diagnostics {
+        private static final long STALL_THRESHOLD_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+        private static final int MAX_STALLS = 50;
+        private static final int STACK_DEPTH = 32;
+
+        /**
+         * Durations bucketed by powers of two microseconds: cheap to record, close enough for percentiles.
+         */
+        static final class Histogram {
+            private static final int BUCKETS = 24; // Up to ~8 s
+
+            private final long[] counts = new long[BUCKETS];
+            private long count;
+            private long totalNanos;
+            private long maxNanos;
+
+            synchronized void record(long nanos) {
+                long micros = Math.max(0, nanos / 1000);
+                int bucket = Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(micros));
+                counts[bucket]++;
+                count++;
+                totalNanos += nanos;
+                maxNanos = Math.max(maxNanos, nanos);
+            }
+
+            synchronized Map<String, Object> snapshot() {
+                Map<String, Object> json = new LinkedHashMap<>();
+                json.put("count", count);
+                json.put("meanMicros", count > 0 ? totalNanos / count / 1000 : 0);
+                json.put("p50Micros", percentile(0.50));
+                json.put("p95Micros", percentile(0.95));
+                json.put("p99Micros", percentile(0.99));
+                json.put("maxMicros", maxNanos / 1000);
+
+                Map<String, Long> buckets = new LinkedHashMap<>();
+                for (int i = 0; i < BUCKETS; i++) {
+                    if (counts[i] > 0) {
+                        buckets.put("<" + (1L << i) + "us", counts[i]);
+                    }
+                }
+                json.put("buckets", buckets);
+                return json;
+            }
+
+            // Upper bound of the bucket holding the given percentile
+            private long percentile(double p) {
+                long target = Math.max(1, (long) Math.ceil(count * p));
+                long seen = 0;
+                for (int i = 0; i < BUCKETS; i++) {
+                    seen += counts[i];
+                    if (seen >= target) {
+                        return 1L << i;
+                    }
+                }
+                return 0;
+            }
+        }
+
+        /**
+         * Times every event dispatch. A watchdog samples the EDT's stack once an event has run past
+         * the threshold, so the dump shows where it was stuck rather than where it finished.
+         */
+        private final class StallDetector extends EventQueue {
+            private final ScheduledExecutorService watchdog = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "launcher-edt-watchdog");
+                thread.setDaemon(true);
+                return thread;
+            });
+            private volatile Thread dispatchThread;
+            private volatile long dispatchStart;
+            private volatile StackTraceElement[] sample;
+            private volatile boolean armed = true;
+            private long dispatchCount;
+
+            StallDetector() {
+                watchdog.scheduleWithFixedDelay(this::check, 20, 20, TimeUnit.MILLISECONDS);
+            }
+
+            @Override
+            protected void dispatchEvent(AWTEvent event) {
+                if (!armed) {
+                    super.dispatchEvent(event);
+                    return;
+                }
+                long id = ++dispatchCount;
+                long start = System.nanoTime();
+                dispatchThread = Thread.currentThread();
+                sample = null;
+                dispatchStart = start;
+                try {
+                    super.dispatchEvent(event);
+                } finally {
+                    dispatchStart = 0;
+                    long duration = System.nanoTime() - start;
+                    // A modal dialog pumps nested events; the outer event is waiting, not stalled
+                    if (id == dispatchCount && duration > STALL_THRESHOLD_NANOS) {
+                        recordStall(event, duration, sample);
+                    }
+                }
+            }
+
+            void uninstall() {
+                armed = false;
+                dispatchStart = 0;
+                watchdog.shutdownNow();
+
+                // pop() removes whichever queue is on top, so only pop while that is still us; otherwise
+                // stay in the chain, passing events straight through
+                if (Toolkit.getDefaultToolkit().getSystemEventQueue() == this) {
+                    pop();
+                }
+            }
+
+            private void check() {
+                long start = dispatchStart;
+                Thread thread = dispatchThread;
+                if (start != 0 && sample == null && thread != null
+                        && System.nanoTime() - start > STALL_THRESHOLD_NANOS) {
+                    sample = thread.getStackTrace();
+                }
+            }
+        }
+
+        private final Map<String, Histogram> paintTimes = new ConcurrentHashMap<>();
+        private final Histogram timerJitter = new Histogram();
+        private final Map<String, Object> gauges = new ConcurrentHashMap<>();
+        private final Deque<Map<String, Object>> stalls = new ArrayDeque<>();
+        private StallDetector stallDetector;
 
-    private static class Particle {
-        float x, y;
-        float speed;
-        float size;
-        float alpha;
+        Histogram paintTime(String component) {
+            return paintTimes.computeIfAbsent(component, key -> new Histogram());
+        }
 
-        Particle() {
-            reset();
+        Histogram timerJitter() {
+            return timerJitter;
         }
 
-        void reset() {
-            x = (float) (Math.random() * WIDTH);
-            y = HEIGHT + 10;
-            speed = (float) (1 + Math.random() * 2);
-            size = (float) (2 + Math.random() * 3);
-            alpha = (float) (0.1 + Math.random() * 0.4);
+        void gauge(String name, Object value) {
+            gauges.put(name, value);
         }
 
-        void update() {
-            y -= speed;
-            if (y < -10) {
-                reset();
+        synchronized void installStallDetector() {
+            if (stallDetector == null) {
+                stallDetector = new StallDetector();
+                Toolkit.getDefaultToolkit().getSystemEventQueue().push(stallDetector);
             }
         }
-    }
 
-    private boolean checkForUpdates() {
-        try {
-            // Fetch latest version
-            URL url = new URL(VERSION_URL);
-            HttpURLConnection connection = (HttpURLConnection) url.openConnection();
-            connection.setRequestMethod("GET");
+        synchronized void uninstallStallDetector() {
+            if (stallDetector != null) {
+                stallDetector.uninstall();
+                stallDetector = null;
+            }
+        }
+
+        File dump(File file) throws IOException {
+            Map<String, Object> json = new LinkedHashMap<>();
+            json.put("timestamp", System.currentTimeMillis());
+            json.put("gauges", new TreeMap<>(gauges));
+
+            Map<String, Object> paints = new TreeMap<>();
+            paintTimes.forEach((component, histogram) -> paints.put(component, histogram.snapshot()));
+            json.put("paintTimes", paints);
+            json.put("timerJitter", timerJitter.snapshot());
+            synchronized (stalls) {
+                json.put("edtStalls", new ArrayList<>(stalls));
+            }
+
+            byte[] bytes = new GsonBuilder().setPrettyPrinting().disableHtmlEscaping().create().toJson(json)
+                    .getBytes(StandardCharsets.UTF_8);
+            Transfer.toFile(new ByteArrayInputStream(bytes), file, bytes.length, null, null);
+            return file;
+        }
 
-            try (BufferedReader reader = new BufferedReader(new InputStreamReader(connection.getInputStream()))) {
-                String latestVersion = reader.readLine().trim();
-                String currentVersion = getCurrentVersion();
+        private void recordStall(AWTEvent event, long duration, StackTraceElement[] stack) {
+            Map<String, Object> stall = new LinkedHashMap<>();
+            stall.put("timestamp", System.currentTimeMillis());
+            stall.put("durationMillis", TimeUnit.NANOSECONDS.toMillis(duration));
+            stall.put("event", event.getClass().getName() + " from " + event.getSource().getClass().getName());
+            if (stack != null) {
+                List<String> frames = new ArrayList<>();
+                for (int i = 0; i < Math.min(STACK_DEPTH, stack.length); i++) {
+                    frames.add(stack[i].toString());
+                }
+                stall.put("stack", frames);
+            }
 
-                return !latestVersion.equals(currentVersion); // Return true if an update is needed
+            synchronized (stalls) {
+                if (stalls.size() == MAX_STALLS) {
+                    stalls.removeFirst();
+                }
+                stalls.addLast(stall);
             }
-        } catch (Exception e) {
-            e.printStackTrace();
-            return false;
         }
     }
 
-    private String getCurrentVersion() {
-        try {
-            File versionFile = new File(LOCAL_VERSION_FILE);
-            if (!versionFile.exists()) return "1.0.0";
+    /**
+     * The single frame clock behind every animation in the launcher. One Swing timer ticks all active
+     * animations in a single pass and then repaints each component they touched once. The clock stops
+     * entirely while nothing is animating, and while its window is iconified or hidden. While the
+     * window is unfocused only one-shot transitions keep running, so they still finish.
+     */
+    static final class AnimationClock {
+        private static final int FRAME_MS = 16;
+
+        interface Animation {
+            /**
+             * Advances the animation. Returns false once it has finished and can be dropped.
+             */
+            boolean tick(long now);
+        }
 
-            try (BufferedReader reader = new BufferedReader(new FileReader(versionFile))) {
-                return reader.readLine().trim();
+        private final Timer timer = new Timer(FRAME_MS, e -> tick());
+        private final List<Animation> active = new ArrayList<>();
+        private final List<Animation> transitions = new ArrayList<>();
+        private final List<JComponent> pendingRepaints = new ArrayList<>();
+        private boolean hidden;
+        private boolean unfocused;
+        private boolean stopped;
+        private long lastTick;
+
+        AnimationClock() {
+            timer.setCoalesce(true);
+        }
+
+        void start(Animation animation) {
+            if (!active.contains(animation)) {
+                active.add(animation);
             }
-        } catch (IOException e) {
-            e.printStackTrace();
-            return "1.0.0";
+            updateTimer();
         }
-    }
 
-    private void updateClient() {
-        SwingWorker<Void, Void> updater = new SwingWorker<>() {
-            @Override
-            protected Void doInBackground() {
-                try {
-                    // Fetch manifest
-                    URL url = new URL(MANIFEST_URL);
-                    HttpURLConnection connection = (HttpURLConnection) url.openConnection();
-                    connection.setRequestMethod("GET");
+        /**
+         * Starts a one-shot animation that runs to the end even while the window is unfocused, such as
+         * a fade or a hover under the pointer, which can reach an unfocused window.
+         */
+        void startTransition(Animation animation) {
+            if (!transitions.contains(animation)) {
+                transitions.add(animation);
+            }
+            start(animation);
+        }
 
-                    File manifestFile = new File("manifest.json");
-                    try (InputStream in = connection.getInputStream();
-                         FileOutputStream out = new FileOutputStream(manifestFile)) {
-                        byte[] buffer = new byte[1024];
-                        int bytesRead;
-                        while ((bytesRead = in.read(buffer)) != -1) {
-                            out.write(buffer, 0, bytesRead);
-                        }
-                    }
+        void stop(Animation animation) {
+            active.remove(animation);
+            transitions.remove(animation);
+            updateTimer();
+        }
 
-                    // Parse and download updates
-                    parseAndDownloadUpdates(manifestFile);
+        /**
+         * Schedules a repaint for the end of the current frame; repeated requests collapse into one.
+         */
+        void repaint(JComponent component) {
+            if (!pendingRepaints.contains(component)) {
+                pendingRepaints.add(component);
+            }
+        }
 
-                    // Save new version
-                    Files.write(Paths.get(LOCAL_VERSION_FILE), "NEW_VERSION".getBytes());
+        /**
+         * Schedules a repaint of part of {@code component}. The RepaintManager merges every region
+         * requested during the frame into a single paint after the tick.
+         */
+        void repaint(JComponent component, Rectangle region) {
+            if (!pendingRepaints.contains(component)) {
+                component.repaint(region);
+            }
+        }
 
-                } catch (Exception e) {
-                    e.printStackTrace();
-                    JOptionPane.showMessageDialog(LoginScreen.this,
-                            "Failed to update the client. Please try again later.",
-                            "Update Error", JOptionPane.ERROR_MESSAGE);
+        /**
+         * Pauses the clock while {@code window} is iconified or hidden, and all but transitions while
+         * it isn't focused.
+         */
+        void attach(Window window) {
+            WindowAdapter windowListener = new WindowAdapter() {
+                @Override
+                public void windowStateChanged(WindowEvent e) {
+                    update(window);
                 }
-                return null;
-            }
 
-            @Override
-            protected void done() {
-                try {
-                    get(); // Check for exceptions
-                    updateStatusLabel.setText("Update completed! Restart to apply changes.");
-                    updateStatusLabel.setForeground(new Color(0, 200, 0));
+                @Override
+                public void windowActivated(WindowEvent e) {
+                    update(window);
+                }
 
-                    // Show restart dialog
-                    int choice = JOptionPane.showConfirmDialog(
-                            LoginScreen.this,
-                            "The update has been downloaded. Would you like to restart now?",
-                            "Update Complete",
-                            JOptionPane.YES_NO_OPTION,
-                            JOptionPane.QUESTION_MESSAGE
-                    );
+                @Override
+                public void windowDeactivated(WindowEvent e) {
+                    update(window);
+                }
+            };
+            window.addWindowListener(windowListener);
+            window.addWindowStateListener(windowListener);
+            window.addComponentListener(new ComponentAdapter() {
+                @Override
+                public void componentShown(ComponentEvent e) {
+                    update(window);
+                }
 
-                    if (choice == JOptionPane.YES_OPTION) {
-                        restartApplication();
-                    }
-                } catch (Exception e) {
-                    updateStatusLabel.setText("Update failed! Please try again.");
-                    updateStatusLabel.setForeground(Color.RED);
-                    log.error("Update failed", e);
+                @Override
+                public void componentHidden(ComponentEvent e) {
+                    update(window);
                 }
-            }
-        };
+            });
+        }
 
-        updater.execute();
-    }
+        void dispose() {
+            stopped = true;
+            active.clear();
+            transitions.clear();
+            timer.stop();
+        }
 
-    private void restartApplication() {
-        try {
-            // Get current JAR path
-            String jarPath = LoginScreen.class.getProtectionDomain()
-                    .getCodeSource().getLocation().toURI().getPath();
+        private void update(Window window) {
+            boolean iconified = window instanceof Frame && (((Frame) window).getExtendedState() & Frame.ICONIFIED) != 0;
+            hidden = iconified || !window.isVisible();
+            unfocused = !window.isFocused();
+            updateTimer();
+        }
 
-            // Build command to restart application
-            List<String> command = new ArrayList<>();
-            command.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
-            command.add("-jar");
-            command.add(jarPath);
+        private void updateTimer() {
+            boolean running = unfocused ? !transitions.isEmpty() : !active.isEmpty();
+            if (!stopped && !hidden && running) {
+                if (!timer.isRunning()) {
+                    lastTick = 0; // Don't count the idle gap as jitter
+                    timer.start();
+                }
+            } else if (timer.isRunning()) {
+                timer.stop();
+            }
+        }
 
-            // Start new process
-            new ProcessBuilder(command).start();
+        private void tick() {
+            long now = System.nanoTime();
+            if (lastTick != 0) {
+                DIAGNOSTICS.timerJitter().record(Math.abs(now - lastTick - TimeUnit.MILLISECONDS.toNanos(FRAME_MS)));
+            }
+            lastTick = now;
+            for (int i = active.size() - 1; i >= 0; i--) {
+                Animation animation = active.get(i);
+                if (unfocused && !transitions.contains(animation)) {
+                    continue;
+                }
+                if (!animation.tick(now)) {
+                    active.remove(i);
+                    transitions.remove(animation);
+                }
+            }
 
-            // Exit current instance
-            System.exit(0);
-        } catch (Exception e) {
-            log.error("Failed to restart application", e);
+            for (int i = 0; i < pendingRepaints.size(); i++) {
+                pendingRepaints.get(i).repaint();
+            }
+            pendingRepaints.clear();
+            updateTimer();
         }
     }
 
-    protected void process(List<Integer> chunks) {
-        // Update progress in UI
-        int latestProgress = chunks.get(chunks.size() - 1);
-        updateStatusLabel.setText("Downloading update: " + latestProgress + "%");
-        updateStatusLabel.setVisible(true);
+    /**
+     * The launcher's fonts, colours and strokes, created once and shared by every paint path. All
+     * members are immutable, so they can be handed to any {@link Graphics2D} without copying.
+     */
+    static final class Styles {
+        static final Font TITLE_FONT = new Font("SansSerif", Font.BOLD, 24);
+        static final Font PLAY_FONT = new Font("SansSerif", Font.BOLD, 20);
+        static final Font CLOSE_FONT = new Font("SansSerif", Font.BOLD, 20);
+        static final Font MINIMIZE_FONT = new Font("SansSerif", Font.BOLD, 18);
+        static final Font BUTTON_FONT = new Font("SansSerif", Font.BOLD, 14);
+        static final Font NAV_FONT = new Font("SansSerif", Font.BOLD, 12);
+        static final Font BODY_FONT = new Font("SansSerif", Font.PLAIN, 14);
+        static final Font QUOTE_FONT = new Font("SansSerif", Font.ITALIC, 14);
+        static final Font SMALL_FONT = new Font("SansSerif", Font.PLAIN, 12);
+        static final Font STATUS_FONT = new Font("SansSerif", Font.ITALIC, 12);
+
+        static final Color TEXT_MUTED = new Color(156, 163, 175);
+        static final Color TEXT_MUTED_HOVER = new Color(176, 183, 195);
+        static final Color PRESSED_OVERLAY = new Color(0, 0, 0, 100);
+        static final Color SHADOW = new Color(0, 0, 0, 50);
+
+        static final BasicStroke HAIRLINE = new BasicStroke(1f);
+        static final BasicStroke SPINNER = new BasicStroke(3);
+
+        private static final Color[] WHITE_ALPHA = new Color[256];
+        private static final Color[] RED_ALPHA = new Color[256];
+
+        static {
+            for (int alpha = 0; alpha < 256; alpha++) {
+                WHITE_ALPHA[alpha] = new Color(255, 255, 255, alpha);
+                RED_ALPHA[alpha] = new Color(255, 0, 0, alpha);
+            }
+        }
 
-        // Add a progress color indicator
-        if (latestProgress < 50) {
-            updateStatusLabel.setForeground(new Color(255, 165, 0)); // Orange
-        } else if (latestProgress < 90) {
-            updateStatusLabel.setForeground(new Color(255, 215, 0)); // Gold
-        } else {
-            updateStatusLabel.setForeground(new Color(0, 255, 127)); // Spring Green
+        private Styles() {
         }
-    }
 
-    private void parseAndDownloadUpdates(File manifestFile) throws IOException {
-        List<String> filesToUpdate = Files.readAllLines(manifestFile.toPath());
+        static Color white(int alpha) {
+            return WHITE_ALPHA[Math.max(0, Math.min(255, alpha))];
+        }
+
+        static Color red(int alpha) {
+            return RED_ALPHA[Math.max(0, Math.min(255, alpha))];
+        }
+    }
 
-        for (String fileName : filesToUpdate) {
-            fileName = fileName.trim(); // Remove extra spaces or newlines
-            if (fileName.isEmpty()) continue; // Skip empty lines
+    /**
+     * A fixed label measured once, so painting it centred doesn't need a {@link FontMetrics} lookup
+     * and string measurement on every repaint.
+     */
+    static final class StaticText {
+        private static final FontRenderContext FRC = new FontRenderContext(null, false, false);
+
+        final String text;
+        final Font font;
+        final int width;
+        final int ascent;
+        final int height;
+
+        StaticText(String text, Font font) {
+            this.text = text;
+            this.font = font;
+            Rectangle2D bounds = font.getStringBounds(text, FRC);
+            LineMetrics metrics = font.getLineMetrics(text, FRC);
+            width = (int) Math.round(bounds.getWidth());
+            ascent = roundUp(metrics.getAscent());
+            height = ascent + roundUp(metrics.getDescent()) + roundUp(metrics.getLeading());
+        }
 
-            URL fileUrl = new URL(UPDATE_BASE_URL + fileName); // Construct the file URL
-            File localFile = new File(fileName); // Save to the same path locally
+        // Same rounding FontMetrics applies, so text lands where it did before
+        private static int roundUp(float value) {
+            return (int) (0.95f + value);
+        }
 
-            try (InputStream in = fileUrl.openStream();
-                 FileOutputStream out = new FileOutputStream(localFile)) {
-                byte[] buffer = new byte[1024];
-                int bytesRead;
-                while ((bytesRead = in.read(buffer)) != -1) {
-                    out.write(buffer, 0, bytesRead);
-                }
-            } catch (FileNotFoundException e) {
-                System.err.println("File not found on server: " + fileUrl);
-            }
+        /**
+         * Draws the text centred in a {@code width} x {@code height} box, shifted by {@code dx, dy}.
+         */
+        void drawCentered(Graphics2D g, int width, int height, int dx, int dy) {
+            g.setFont(font);
+            g.drawString(text, (width - this.width) / 2 + dx, (height - this.height) / 2 + ascent + dy);
         }
     }
 
-    private void showStyledMessage(String message) {
-        JDialog dialog = new JDialog(this, "Message", true);
-        dialog.setSize(300, 150);
-        dialog.setLocationRelativeTo(this);
-        dialog.setUndecorated(true);
+    /**
+     * Keeps painting inside a frame-time budget on slow machines. Paint time is summed per frame and
+     * smoothed; while it stays over budget quality steps down one tier at a time (fewer particles, no
+     * antialiasing, no glow, then a static background), and after a sustained stretch of headroom it
+     * steps back up. {@code -Dvalkarin.render.quality=<TIER>} pins a tier and disables adaptation.
+     */
+    static final class RenderQuality {
+        enum Tier {
+            FULL,
+            REDUCED_PARTICLES,
+            NO_ANTIALIAS,
+            NO_GLOW,
+            STATIC
+        }
 
-        // Main panel with styling
-        JPanel panel = new JPanel();
-        panel.setLayout(new BorderLayout());
-        panel.setBackground(new Color(34, 45, 67));
-        panel.setBorder(BorderFactory.createLineBorder(new Color(147, 51, 234), 2));
+        private static final long FRAME_BUDGET_NANOS = TimeUnit.MILLISECONDS.toNanos(8);
+        private static final int STEP_DOWN_FRAMES = 30;  // ~0.5 s over budget
+        private static final int STEP_UP_FRAMES = 300;   // ~5 s under half the budget
+        private static final int STATIC_RETRY_MS = 30_000;
+
+        private final Consumer<Tier> listener;
+        private final boolean pinned;
+        private final Timer staticRetry;
+        private Tier tier;
+        private long framePaintNanos;
+        private double averageNanos;
+        private int framesOverBudget;
+        private int framesWithHeadroom;
+
+        RenderQuality(Consumer<Tier> listener) {
+            this.listener = listener;
+
+            Tier pinnedTier = null;
+            String property = System.getProperty("valkarin.render.quality");
+            if (property != null) {
+                try {
+                    pinnedTier = Tier.valueOf(property.trim().toUpperCase());
+                } catch (IllegalArgumentException e) {
+                    log.warn("Unknown render quality {}, adapting automatically", property);
+                }
+            }
+            pinned = pinnedTier != null;
+            tier = pinned ? pinnedTier : Tier.FULL;
 
-        // Message label
-        JLabel label = new JLabel(message, SwingConstants.CENTER);
-        label.setForeground(Color.WHITE);
-        label.setFont(new Font("SansSerif", Font.BOLD, 16));
-        panel.add(label, BorderLayout.CENTER);
+            // A static background produces no frames to measure, so periodically try animating again
+            staticRetry = new Timer(STATIC_RETRY_MS, e -> setTier(Tier.NO_GLOW));
+            staticRetry.setRepeats(false);
+        }
 
-        // OK Button
-        JButton okButton = new JButton("OK");
-        okButton.setBackground(new Color(147, 51, 234));
-        okButton.setForeground(Color.WHITE);
-        okButton.setFocusPainted(false);
-        okButton.setFont(new Font("SansSerif", Font.BOLD, 14));
-        okButton.setBorder(BorderFactory.createEmptyBorder(5, 15, 5, 15));
-        okButton.setCursor(new Cursor(Cursor.HAND_CURSOR));
-        okButton.addActionListener(e -> dialog.dispose());
-        JPanel buttonPanel = new JPanel();
-        buttonPanel.setBackground(new Color(34, 45, 67));
-        buttonPanel.add(okButton);
+        Tier getTier() {
+            return tier;
+        }
 
-        panel.add(buttonPanel, BorderLayout.SOUTH);
+        boolean antialias() {
+            return tier.compareTo(Tier.NO_ANTIALIAS) < 0;
+        }
 
-        dialog.add(panel);
-        dialog.setVisible(true);
-    }
+        boolean glow() {
+            return tier.compareTo(Tier.NO_GLOW) < 0;
+        }
 
-    private JButton createUpdateButton() {
-        JButton updateButton = new JButton("Check for Updates") {
-            @Override
-            protected void paintComponent(Graphics g) {
-                Graphics2D g2 = (Graphics2D) g.create();
-                g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        void applyTo(Graphics2D g) {
+            g.setRenderingHint(RenderingHints.KEY_ANTIALIASING,
+                    antialias() ? RenderingHints.VALUE_ANTIALIAS_ON : RenderingHints.VALUE_ANTIALIAS_OFF);
+        }
 
-                // Gradient background for button
-                GradientPaint gradient = new GradientPaint(
-                        0, 0, buttonStartColor,
-                        getWidth(), 0, buttonEndColor
-                );
-                g2.setPaint(gradient);
-                g2.fill(new RoundRectangle2D.Float(0, 0, getWidth(), getHeight(), 15, 15));
+        void recordPaint(long nanos) {
+            framePaintNanos += nanos;
+        }
 
-                if (getModel().isRollover()) {
-                    g2.setColor(new Color(255, 255, 255, 50));
-                    g2.fill(new RoundRectangle2D.Float(0, 0, getWidth(), getHeight(), 15, 15));
+        void endFrame() {
+            averageNanos = averageNanos * 0.9 + framePaintNanos * 0.1;
+            framePaintNanos = 0;
+            if (pinned) {
+                return;
+            }
+
+            if (averageNanos > FRAME_BUDGET_NANOS) {
+                framesWithHeadroom = 0;
+                if (++framesOverBudget >= STEP_DOWN_FRAMES && tier != Tier.STATIC) {
+                    setTier(Tier.values()[tier.ordinal() + 1]);
+                }
+            } else if (averageNanos < FRAME_BUDGET_NANOS / 2) {
+                framesOverBudget = 0;
+                if (++framesWithHeadroom >= STEP_UP_FRAMES && tier != Tier.FULL) {
+                    setTier(Tier.values()[tier.ordinal() - 1]);
                 }
+            } else {
+                framesOverBudget = 0;
+                framesWithHeadroom = 0;
+            }
+        }
 
-                g2.setColor(Color.WHITE);
-                g2.setFont(new Font("SansSerif", Font.BOLD, 14));
-                FontMetrics fm = g2.getFontMetrics();
-                int x = (getWidth() - fm.stringWidth(getText())) / 2;
-                int y = ((getHeight() - fm.getHeight()) / 2) + fm.getAscent();
-                g2.drawString(getText(), x, y);
+        void dispose() {
+            staticRetry.stop();
+        }
 
-                g2.dispose();
+        private void setTier(Tier tier) {
+            if (tier == this.tier) {
+                return;
             }
-        };
+            log.info("Render quality {} -> {} (average paint {} us/frame)",
+                    this.tier, tier, (long) (averageNanos / 1000));
+            this.tier = tier;
+            framesOverBudget = 0;
+            framesWithHeadroom = 0;
+            averageNanos = FRAME_BUDGET_NANOS / 2.0; // Judge the new tier on its own frames
+
+            if (tier == Tier.STATIC) {
+                staticRetry.restart();
+            } else {
+                staticRetry.stop();
+            }
+            listener.accept(tier);
+        }
+    }
 
-        updateButton.setBorder(BorderFactory.createEmptyBorder());
-        updateButton.setContentAreaFilled(false);
-        updateButton.setFocusPainted(false);
-        updateButton.setCursor(new Cursor(Cursor.HAND_CURSOR));
+    /**
+     * A pre-rendered copy of a static visual, redrawn only when its size or state changes or the
+     * theme is invalidated. The copy lives in a {@link VolatileImage} so blits stay on the GPU where
+     * the pipeline allows it; if the image is lost (display change, screen lock) it is re-rendered,
+     * and where volatile images aren't available a {@link BufferedImage} is used instead.
+     */
+    static final class RenderCache {
+        interface Painter {
+            void paint(Graphics2D g, int width, int height);
+        }
 
-        updateButton.addActionListener(e -> {
-            updateStatusLabel.setText("Checking for updates...");
-            updateStatusLabel.setForeground(Color.WHITE);
-            updateStatusLabel.setVisible(true);
+        private static final boolean ACCELERATED = !Boolean.getBoolean("valkarin.render.noVolatile");
+        private static volatile int generation;
 
-            if (checkForUpdates()) {
-                updateStatusLabel.setText("Update available!");
-                updateStatusLabel.setForeground(Color.RED);
+        private final Painter painter;
+        private VolatileImage volatileImage;
+        private BufferedImage bufferedImage;
+        private boolean volatileFailed;
+        private int width;
+        private int height;
+        private Object state;
+        private int builtGeneration = -1;
 
-                int choice = JOptionPane.showConfirmDialog(
-                        LoginScreen.this,
-                        "An update is available. Would you like to download it now?",
-                        "Update Available",
-                        JOptionPane.YES_NO_OPTION,
-                        JOptionPane.QUESTION_MESSAGE
-                );
+        RenderCache(Painter painter) {
+            this.painter = painter;
+        }
 
-                if (choice == JOptionPane.YES_OPTION) {
-                    updateStatusLabel.setText("Starting download...");
-                    updateStatusLabel.setForeground(Color.WHITE);
-                    downloadAndInstallUpdate();
+        /**
+         * Drops every cached image, e.g. after a look and feel change.
+         */
+        static void invalidateAll() {
+            generation++;
+        }
+
+        void draw(Graphics g, Component component, int width, int height, Object state) {
+            if (width <= 0 || height <= 0) {
+                return;
+            }
 
-                    // Disable the update button during download
-                    ((JButton)e.getSource()).setEnabled(false);
+            boolean resized = width != this.width || height != this.height;
+            boolean stale = resized || builtGeneration != generation || !Objects.equals(state, this.state);
+            this.width = width;
+            this.height = height;
+            this.state = state;
+            builtGeneration = generation;
+
+            GraphicsConfiguration gc = component.getGraphicsConfiguration();
+            if (ACCELERATED && !volatileFailed && gc != null) {
+                try {
+                    drawVolatile(g, gc, resized, stale);
+                    return;
+                } catch (RuntimeException e) {
+                    log.debug("Volatile images unavailable, falling back to buffered images", e);
+                    volatileFailed = true;
+                    volatileImage = null;
+                    stale = true;
                 }
-            } else {
-                updateStatusLabel.setText("Client is up-to-date!");
-                updateStatusLabel.setForeground(new Color(0, 200, 0));
             }
-        });
 
-        return updateButton;
+            if (bufferedImage == null || resized) {
+                bufferedImage = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB_PRE);
+                stale = true;
+            }
+            if (stale) {
+                render(bufferedImage.createGraphics());
+            }
+            g.drawImage(bufferedImage, 0, 0, null);
+        }
+
+        private void drawVolatile(Graphics g, GraphicsConfiguration gc, boolean resized, boolean stale) {
+            do {
+                int status = volatileImage == null ? VolatileImage.IMAGE_INCOMPATIBLE : volatileImage.validate(gc);
+                if (status == VolatileImage.IMAGE_INCOMPATIBLE || resized) {
+                    if (volatileImage != null) {
+                        volatileImage.flush();
+                    }
+                    volatileImage = gc.createCompatibleVolatileImage(width, height, Transparency.TRANSLUCENT);
+                    render(volatileImage.createGraphics());
+                } else if (status == VolatileImage.IMAGE_RESTORED || stale) {
+                    render(volatileImage.createGraphics());
+                }
+                resized = false;
+                stale = false;
+                g.drawImage(volatileImage, 0, 0, null);
+            } while (volatileImage.contentsLost());
+        }
+
+        private void render(Graphics2D g) {
+            try {
+                g.setComposite(AlphaComposite.Clear);
+                g.fillRect(0, 0, width, height);
+                g.setComposite(AlphaComposite.SrcOver);
+                painter.paint(g, width, height);
+            } finally {
+                g.dispose();
+            }
+        }
+    }
+
+    /**
+     * Decodes and scales image resources off the EDT. Scaled pixels are kept in {@code launcher-cache/images}
+     * as raw ARGB, keyed by the source's SHA-256, the target width and the display scale, so later
+     * launches read ready-to-draw pixels instead of decoding and resampling. Every screen's scale gets
+     * its own variant, combined into one multi-resolution image that Java2D picks from on HiDPI screens.
+     */
+    static final class AssetPipeline {
+        private static final File CACHE = new File(CACHE_DIR, "images");
+        private static final int MAGIC = 0x564B494D; // "VKIM"
+        private static final int HEADER_BYTES = 12;
+
+        private AssetPipeline() {
+        }
+
+        /**
+         * Loads {@code resource} scaled to {@code width} logical pixels, keeping its aspect ratio.
+         * Blocks on I/O; call it from a worker thread.
+         */
+        static BaseMultiResolutionImage load(String resource, int width) throws IOException {
+            byte[] source;
+            try (InputStream in = LoginScreen.class.getResourceAsStream(resource)) {
+                if (in == null) {
+                    throw new FileNotFoundException(resource);
+                }
+                source = in.readAllBytes();
+            }
+
+            String name = resource.substring(resource.lastIndexOf('/') + 1);
+            String sha256 = toHex(newSha256().digest(source));
+            deleteStale(name, sha256);
+
+            BufferedImage decoded = null;
+            List<BufferedImage> variants = new ArrayList<>();
+            for (double scale : displayScales()) {
+                File file = new File(CACHE, String.format(Locale.ROOT, "%s-%s-%d@%.2fx.argb", name, sha256, width, scale));
+                BufferedImage variant = read(file);
+                if (variant == null) {
+                    if (decoded == null) {
+                        decoded = ImageIO.read(new ByteArrayInputStream(source));
+                        if (decoded == null) {
+                            throw new IOException("Unsupported image format: " + resource);
+                        }
+                    }
+                    int scaledWidth = (int) Math.round(width * scale);
+                    int scaledHeight = (int) Math.round((double) decoded.getHeight() / decoded.getWidth() * scaledWidth);
+                    variant = createHighQualityScaledImage(decoded, scaledWidth, scaledHeight);
+                    write(file, variant);
+                }
+                variants.add(variant);
+            }
+            // The 1x variant comes first and defines the logical size
+            return new BaseMultiResolutionImage(variants.toArray(new Image[0]));
+        }
+
+        /**
+         * 1.0 followed by the scale of every other screen, so a window moved between monitors stays sharp.
+         */
+        private static double[] displayScales() {
+            TreeSet<Double> scales = new TreeSet<>();
+            scales.add(1.0);
+            if (!GraphicsEnvironment.isHeadless()) {
+                for (GraphicsDevice device : GraphicsEnvironment.getLocalGraphicsEnvironment().getScreenDevices()) {
+                    scales.add(device.getDefaultConfiguration().getDefaultTransform().getScaleX());
+                }
+            }
+            return scales.stream().mapToDouble(Double::doubleValue).toArray();
+        }
+
+        private static BufferedImage read(File file) {
+            if (!file.isFile()) {
+                return null;
+            }
+            try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+                ByteBuffer buffer = ByteBuffer.allocate((int) channel.size());
+                while (buffer.hasRemaining() && channel.read(buffer) != -1) {
+                    // Fill the buffer
+                }
+                buffer.flip();
+
+                if (buffer.remaining() < HEADER_BYTES || buffer.getInt() != MAGIC) {
+                    return null;
+                }
+                int width = buffer.getInt();
+                int height = buffer.getInt();
+                if (width <= 0 || height <= 0 || buffer.remaining() != width * height * 4) {
+                    return null;
+                }
+
+                int[] pixels = new int[width * height];
+                buffer.asIntBuffer().get(pixels);
+                BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+                // setRGB rather than wrapping the array keeps the image eligible for acceleration
+                image.setRGB(0, 0, width, height, pixels, 0, width);
+                return image;
+            } catch (IOException e) {
+                log.debug("Ignoring unreadable image cache entry {}", file, e);
+                return null;
+            }
+        }
+
+        private static void write(File file, BufferedImage image) {
+            int width = image.getWidth();
+            int height = image.getHeight();
+            ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + width * height * 4);
+            buffer.putInt(MAGIC).putInt(width).putInt(height);
+            buffer.asIntBuffer().put(image.getRGB(0, 0, width, height, null, 0, width));
+            try {
+                Transfer.toFile(new ByteArrayInputStream(buffer.array()), file, buffer.capacity(), null, null);
+            } catch (IOException e) {
+                log.debug("Couldn't cache scaled image {}", file, e);
+            }
+        }
+
+        private static void deleteStale(String name, String sha256) {
+            File[] files = CACHE.listFiles((dir, file) -> file.startsWith(name + "-") && !file.startsWith(name + "-" + sha256 + "-"));
+            if (files == null) {
+                return;
+            }
+            for (File file : files) {
+                if (!file.delete()) {
+                    log.debug("Couldn't delete stale image cache entry {}", file);
+                }
+            }
+        }
+    }
+
+    /**
+     * The patch notes feed on the update host. Each page is a JSON object of newest-first entries
+     * plus an optional link to the next, older page, resolved against the page's own URL:
+     * <pre>
+     * {"entries": [{"title": "November 30, 2024 - Update v1.0.0", "body": "New Features:\n• ..."}],
+     *  "next": "patchnotes-2.json"}
+     * </pre>
+     * Pages go through the {@link MetadataCache}, so an unchanged page is served from disk.
+     */
+    static final class PatchNotesFeed {
+        private static final Gson GSON = new Gson();
+
+        static final class Entry {
+            final String title;
+            final String body;
+
+            Entry(String title, String body) {
+                this.title = title;
+                this.body = body;
+            }
+        }
+
+        static final class Page {
+            final List<Entry> entries;
+            final URL next;
+
+            Page(List<Entry> entries, URL next) {
+                this.entries = entries;
+                this.next = next;
+            }
+        }
+
+        private PatchNotesFeed() {
+        }
+
+        static Page fetch(URL url) throws IOException {
+            return parse(url, MIRRORS.fetchMetadata(url, VERSION_CHECK_TIMEOUT_MS));
+        }
+
+        static Page parse(URL url, byte[] json) throws IOException {
+            JsonObject root;
+            try {
+                root = GSON.fromJson(new String(json, StandardCharsets.UTF_8), JsonObject.class);
+            } catch (RuntimeException e) {
+                throw new IOException("Malformed patch notes page " + url, e);
+            }
+            if (root == null || !root.has("entries") || !root.get("entries").isJsonArray()) {
+                throw new IOException("Patch notes page has no entries: " + url);
+            }
+
+            List<Entry> entries = new ArrayList<>();
+            for (JsonElement element : root.getAsJsonArray("entries")) {
+                if (!element.isJsonObject()) {
+                    continue;
+                }
+                JsonObject entry = element.getAsJsonObject();
+                String title = entry.has("title") ? entry.get("title").getAsString() : "";
+                String body = entry.has("body") ? entry.get("body").getAsString() : "";
+                entries.add(new Entry(title, body));
+            }
+
+            JsonElement next = root.get("next");
+            return new Page(entries, next != null && !next.isJsonNull() ? new URL(url, next.getAsString()) : null);
+        }
+    }
+
+    /**
+     * A scrolling list of patch notes that only paints what is on screen. Entries are measured when
+     * they are added or the width changes, never while painting, and wrapped text is kept for a
+     * bounded number of entries. {@code onNearEnd} is called from the viewport's change events when
+     * the user scrolls close to the last entry.
+     */
+    static final class PatchNotesView extends JComponent implements Scrollable {
+        private static final int ESTIMATED_HEIGHT = 160;
+        private static final int ENTRY_GAP = 20;
+        private static final int TITLE_GAP = 8;
+        private static final int MAX_CACHED_LAYOUTS = 32;
+        private static final FontRenderContext FRC = new FontRenderContext(null, true, true);
+        private static final Color BODY_COLOR = new Color(200, 200, 200);
+
+        /**
+         * An entry's title and body wrapped to the current width.
+         */
+        private static final class WrappedEntry {
+            final List<TextLayout> lines = new ArrayList<>();
+            int titleLines;
+            int height;
+        }
+
+        private final Runnable onNearEnd;
+        private final Diagnostics.Histogram paintTime = DIAGNOSTICS.paintTime("patchNotes");
+        private final List<PatchNotesFeed.Entry> entries = new ArrayList<>();
+        private int[] heights = new int[0]; // estimated until the first width is known
+        private int[] offsets = new int[1];
+        private boolean offsetsValid = true;
+        private int layoutWidth = -1;
+        private final ChangeListener nearEndListener = e -> checkNearEnd();
+        private JViewport viewport;
+        private final Map<PatchNotesFeed.Entry, WrappedEntry> layouts =
+                new LinkedHashMap<PatchNotesFeed.Entry, WrappedEntry>(16, 0.75f, true) {
+                    @Override
+                    protected boolean removeEldestEntry(Map.Entry<PatchNotesFeed.Entry, WrappedEntry> eldest) {
+                        return size() > MAX_CACHED_LAYOUTS;
+                    }
+                };
+
+        PatchNotesView(Runnable onNearEnd) {
+            this.onNearEnd = onNearEnd;
+            setOpaque(false);
+            setBorder(new EmptyBorder(PAD, 0, 0, 0));
+        }
+
+        void addEntries(List<PatchNotesFeed.Entry> page) {
+            int first = entries.size();
+            entries.addAll(page);
+            heights = Arrays.copyOf(heights, entries.size());
+            measure(first);
+            revalidate();
+            repaint();
+        }
+
+        @Override
+        public void setBounds(int x, int y, int width, int height) {
+            super.setBounds(x, y, width, height);
+            Insets insets = getInsets();
+            int contentWidth = width - insets.left - insets.right;
+            if (contentWidth > 0 && contentWidth != layoutWidth) {
+                // Rewrap everything at the new width; the new heights take effect on the next layout
+                layoutWidth = contentWidth;
+                layouts.clear();
+                measure(0);
+                revalidate();
+            }
+        }
+
+        @Override
+        public void addNotify() {
+            super.addNotify();
+            if (onNearEnd != null && getParent() instanceof JViewport) {
+                viewport = (JViewport) getParent();
+                viewport.addChangeListener(nearEndListener);
+            }
+        }
+
+        @Override
+        public void removeNotify() {
+            if (viewport != null) {
+                viewport.removeChangeListener(nearEndListener);
+                viewport = null;
+            }
+            super.removeNotify();
+        }
+
+        /**
+         * Measures entries from {@code from} onwards at the current width. Before the first layout
+         * there is no width yet, so they keep an estimate until {@link #setBounds} measures them.
+         */
+        private void measure(int from) {
+            for (int i = from; i < entries.size(); i++) {
+                heights[i] = layoutWidth > 0 ? layout(entries.get(i), layoutWidth).height : ESTIMATED_HEIGHT;
+            }
+            offsetsValid = false;
+        }
+
+        /**
+         * Called whenever the viewport scrolls or the view is resized, so a short first page keeps
+         * pulling in pages until it fills the viewport.
+         */
+        private void checkNearEnd() {
+            Rectangle visible = viewport.getViewRect();
+            if (!entries.isEmpty() && visible.y + 2 * visible.height >= getHeight()) {
+                onNearEnd.run();
+            }
+        }
+
+        int entryCount() {
+            return entries.size();
+        }
+
+        @Override
+        public Dimension getPreferredSize() {
+            Insets insets = getInsets();
+            return new Dimension(0, insets.top + insets.bottom + offsets()[entries.size()]);
+        }
+
+        @Override
+        public Dimension getPreferredScrollableViewportSize() {
+            return getPreferredSize();
+        }
+
+        @Override
+        public int getScrollableUnitIncrement(Rectangle visibleRect, int orientation, int direction) {
+            return 16;
+        }
+
+        @Override
+        public int getScrollableBlockIncrement(Rectangle visibleRect, int orientation, int direction) {
+            return orientation == SwingConstants.VERTICAL ? visibleRect.height : visibleRect.width;
+        }
+
+        @Override
+        public boolean getScrollableTracksViewportWidth() {
+            return true;
+        }
+
+        @Override
+        public boolean getScrollableTracksViewportHeight() {
+            return false;
+        }
+
+        @Override
+        public void paint(Graphics g) {
+            long start = System.nanoTime();
+            super.paint(g);
+            paintTime.record(System.nanoTime() - start);
+        }
+
+        @Override
+        protected void paintComponent(Graphics g) {
+            Insets insets = getInsets();
+            if (layoutWidth <= 0 || entries.isEmpty()) {
+                return;
+            }
+
+            Graphics2D g2 = (Graphics2D) g.create();
+            g2.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            g2.setRenderingHint(RenderingHints.KEY_FRACTIONALMETRICS, RenderingHints.VALUE_FRACTIONALMETRICS_ON);
+
+            Rectangle clip = g2.getClipBounds();
+            int top = clip.y - insets.top;
+            int bottom = clip.y + clip.height - insets.top;
+
+            for (int i = firstEntryBelow(top); i < entries.size() && offsets()[i] < bottom; i++) {
+                paintEntry(g2, layout(entries.get(i), layoutWidth), insets.left, insets.top + offsets()[i]);
+            }
+            g2.dispose();
+        }
+
+        private static void paintEntry(Graphics2D g2, WrappedEntry wrapped, int x, int y) {
+            float lineY = y;
+            g2.setColor(Color.WHITE);
+            for (int i = 0; i < wrapped.lines.size(); i++) {
+                if (i == wrapped.titleLines) {
+                    g2.setColor(BODY_COLOR);
+                    lineY += TITLE_GAP;
+                }
+                TextLayout line = wrapped.lines.get(i);
+                lineY += line.getAscent();
+                line.draw(g2, x, lineY);
+                lineY += line.getDescent() + line.getLeading();
+            }
+        }
+
+        /**
+         * Wraps the title, then each body line, to {@code width}. Blank body lines are kept.
+         */
+        private WrappedEntry layout(PatchNotesFeed.Entry entry, int width) {
+            WrappedEntry wrapped = layouts.get(entry);
+            if (wrapped != null) {
+                return wrapped;
+            }
+
+            wrapped = new WrappedEntry();
+            wrap(entry.title.isEmpty() ? " " : entry.title, Styles.BUTTON_FONT, width, wrapped.lines);
+            wrapped.titleLines = wrapped.lines.size();
+            for (String paragraph : entry.body.split("\n", -1)) {
+                wrap(paragraph.isEmpty() ? " " : paragraph, Styles.BODY_FONT, width, wrapped.lines);
+            }
+
+            float height = ENTRY_GAP + TITLE_GAP;
+            for (TextLayout line : wrapped.lines) {
+                height += line.getAscent() + line.getDescent() + line.getLeading();
+            }
+            wrapped.height = (int) Math.ceil(height);
+            layouts.put(entry, wrapped);
+            return wrapped;
+        }
+
+        private static void wrap(String text, Font font, int width, List<TextLayout> lines) {
+            AttributedString attributed = new AttributedString(text);
+            attributed.addAttribute(TextAttribute.FONT, font);
+            LineBreakMeasurer measurer = new LineBreakMeasurer(attributed.getIterator(), FRC);
+            while (measurer.getPosition() < text.length()) {
+                lines.add(measurer.nextLayout(width));
+            }
+        }
+
+        private int firstEntryBelow(int y) {
+            int[] offsets = offsets();
+            int low = 0;
+            int high = entries.size() - 1;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (offsets[mid + 1] <= y) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        private int[] offsets() {
+            if (!offsetsValid) {
+                if (offsets.length != entries.size() + 1) {
+                    offsets = new int[entries.size() + 1];
+                }
+                for (int i = 0; i < entries.size(); i++) {
+                    offsets[i + 1] = offsets[i] + heights[i];
+                }
+                offsetsValid = true;
+            }
+            return offsets;
+        }
+    }
+
+    /**
+     * The background particles, stored as parallel primitive arrays rather than one object each.
+     * Every size/alpha combination is pre-rendered into a small sprite once, so a frame is a loop of
+     * arithmetic and image blits: neither {@link #update()} nor {@link #paint(Graphics2D)} allocates.
+     */
+    static final class ParticleField {
+        private static final int MIN_SIZE = 2;
+        private static final int SIZE_LEVELS = 4;   // 2..5 px
+        private static final int ALPHA_LEVELS = 16; // 0.1..0.5 opacity
+
+        private static final BufferedImage[] SPRITES = createSprites();
+
+        private final int count;
+        private final float[] x;
+        private final float[] y;
+        private final float[] speed;
+        private final byte[] sprite;
+        private final Rectangle clip = new Rectangle();
+        private int active;
+
+        ParticleField(int count) {
+            this.count = Math.max(0, count);
+            x = new float[this.count];
+            y = new float[this.count];
+            speed = new float[this.count];
+            sprite = new byte[this.count];
+            for (int i = 0; i < this.count; i++) {
+                reset(i);
+            }
+            active = this.count;
+        }
+
+        int size() {
+            return count;
+        }
+
+        /**
+         * Limits how many particles are updated and painted, e.g. when render quality drops.
+         */
+        void setActive(int active) {
+            this.active = Math.max(0, Math.min(count, active));
+        }
+
+        /**
+         * Advances every particle, recording the area each one vacated and now covers in {@code dirty}.
+         */
+        void update(DirtyRegion dirty) {
+            for (int i = 0; i < active; i++) {
+                int oldX = (int) x[i];
+                int oldY = (int) y[i];
+                int oldSize = spriteSize(i);
+
+                y[i] -= speed[i];
+                if (y[i] < -10) {
+                    reset(i);
+                    dirty.add(oldX, oldY, oldSize, oldSize);
+                    dirty.add((int) x[i], (int) y[i], spriteSize(i), spriteSize(i));
+                } else {
+                    int newY = (int) y[i];
+                    dirty.add(oldX, newY, oldSize, oldY - newY + oldSize);
+                }
+            }
+        }
+
+        /**
+         * Blits the particles that intersect the graphics clip.
+         */
+        void paint(Graphics2D g) {
+            Rectangle clip = this.clip;
+            clip.setBounds(0, 0, WIDTH, HEIGHT);
+            g.getClipBounds(clip);
+            int clipRight = clip.x + clip.width;
+            int clipBottom = clip.y + clip.height;
+
+            for (int i = 0; i < active; i++) {
+                int px = (int) x[i];
+                int py = (int) y[i];
+                int size = spriteSize(i);
+                if (px + size > clip.x && px < clipRight && py + size > clip.y && py < clipBottom) {
+                    g.drawImage(SPRITES[sprite[i]], px, py, null);
+                }
+            }
+        }
+
+        private int spriteSize(int i) {
+            return SPRITES[sprite[i]].getWidth();
+        }
+
+        private void reset(int i) {
+            x[i] = (float) (Math.random() * WIDTH);
+            y[i] = HEIGHT + 10;
+            speed[i] = (float) (1 + Math.random() * 2);
+            int size = (int) (Math.random() * SIZE_LEVELS);
+            int alpha = (int) (Math.random() * ALPHA_LEVELS);
+            sprite[i] = (byte) (size * ALPHA_LEVELS + alpha);
+        }
+
+        private static BufferedImage[] createSprites() {
+            BufferedImage[] sprites = new BufferedImage[SIZE_LEVELS * ALPHA_LEVELS];
+            for (int size = 0; size < SIZE_LEVELS; size++) {
+                for (int alpha = 0; alpha < ALPHA_LEVELS; alpha++) {
+                    int px = MIN_SIZE + size;
+                    BufferedImage image = new BufferedImage(px + 1, px + 1, BufferedImage.TYPE_INT_ARGB_PRE);
+                    Graphics2D g = image.createGraphics();
+                    g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+                    g.setColor(new Color(1f, 1f, 1f, 0.1f + 0.4f * alpha / (ALPHA_LEVELS - 1)));
+                    g.fill(new RoundRectangle2D.Float(0, 0, px, px, 2, 2));
+                    g.dispose();
+                    sprites[size * ALPHA_LEVELS + alpha] = image;
+                }
+            }
+            return sprites;
+        }
+
+        /**
+         * Runs {@code frames} update/paint cycles into an offscreen image on the calling thread and
+         * returns the bytes it allocated per frame, or -1 if the JVM can't report allocations.
+         * Enabled at startup with {@code -Dvalkarin.particles.measure=true}.
+         */
+        double measureAllocationsPerFrame(int frames) {
+            java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+            if (!(bean instanceof com.sun.management.ThreadMXBean)) {
+                return -1;
+            }
+            com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+            long thread = Thread.currentThread().getId();
+
+            BufferedImage target = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_ARGB_PRE);
+            Graphics2D g = target.createGraphics();
+            DirtyRegion dirty = new DirtyRegion();
+            try {
+                for (int i = 0; i < frames * 10; i++) {
+                    // Warm up so class loading and JIT don't count
+                    dirty.clear();
+                    update(dirty);
+                    paint(g);
+                }
+
+                long before = threads.getThreadAllocatedBytes(thread);
+                for (int i = 0; i < frames; i++) {
+                    dirty.clear();
+                    update(dirty);
+                    paint(g);
+                }
+                long after = threads.getThreadAllocatedBytes(thread);
+                return (double) (after - before) / frames;
+            } finally {
+                g.dispose();
+            }
+        }
+    }
+
+    /**
+     * A small, fixed set of rectangles covering what changed in a frame. Each added area is merged
+     * into an existing rectangle when that barely grows it, so nearby particles share one rectangle
+     * and a frame hands the RepaintManager a handful of regions rather than one per particle.
+     */
+    static final class DirtyRegion {
+        private static final int MAX_RECTS = 32;
+        private static final int MERGE_SLACK = 32 * 32; // px² a merge may add beyond the two areas
+
+        private final int[] x0 = new int[MAX_RECTS];
+        private final int[] y0 = new int[MAX_RECTS];
+        private final int[] x1 = new int[MAX_RECTS];
+        private final int[] y1 = new int[MAX_RECTS];
+        private final Rectangle scratch = new Rectangle();
+        private int count;
+
+        void clear() {
+            count = 0;
+        }
+
+        int size() {
+            return count;
+        }
+
+        /**
+         * Returns rectangle {@code i}. The instance is reused by the next call.
+         */
+        Rectangle get(int i) {
+            scratch.setBounds(x0[i], y0[i], x1[i] - x0[i], y1[i] - y0[i]);
+            return scratch;
+        }
+
+        void add(int x, int y, int width, int height) {
+            if (width <= 0 || height <= 0) {
+                return;
+            }
+            int ax1 = x + width;
+            int ay1 = y + height;
+            long area = (long) width * height;
+
+            int best = -1;
+            long bestGrowth = Long.MAX_VALUE;
+            for (int i = 0; i < count; i++) {
+                long existing = (long) (x1[i] - x0[i]) * (y1[i] - y0[i]);
+                long union = (long) (Math.max(x1[i], ax1) - Math.min(x0[i], x)) * (Math.max(y1[i], ay1) - Math.min(y0[i], y));
+                long growth = union - existing - area;
+                if (growth < bestGrowth) {
+                    best = i;
+                    bestGrowth = growth;
+                }
+            }
+
+            if (best >= 0 && (bestGrowth <= MERGE_SLACK || count == MAX_RECTS)) {
+                x0[best] = Math.min(x0[best], x);
+                y0[best] = Math.min(y0[best], y);
+                x1[best] = Math.max(x1[best], ax1);
+                y1[best] = Math.max(y1[best], ay1);
+            } else {
+                x0[count] = x;
+                y0[count] = y;
+                x1[count] = ax1;
+                y1[count] = ay1;
+                count++;
+            }
+        }
+    }
+
+    /**
+     * Checks {@code version.txt} off the Event Dispatch Thread. A check starts as soon as the launcher
+     * is initialised and can repeat on a schedule; results are delivered as futures and to listeners,
+     * so the UI only ever renders an outcome and never waits on the network.
+     */
+    static final class UpdateService {
+        enum Status {
+            UP_TO_DATE,
+            UPDATE_AVAILABLE,
+            FAILED
+        }
+
+        static final class UpdateCheck {
+            final Status status;
+            final String currentVersion;
+            final String latestVersion;
+            final Throwable error;
+
+            UpdateCheck(Status status, String currentVersion, String latestVersion, Throwable error) {
+                this.status = status;
+                this.currentVersion = currentVersion;
+                this.latestVersion = latestVersion;
+                this.error = error;
+            }
+        }
+
+        private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "launcher-update-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+        private final List<Consumer<UpdateCheck>> listeners = new CopyOnWriteArrayList<>();
+        private CompletableFuture<UpdateCheck> inFlight;
+        private volatile UpdateCheck lastResult;
+        private ScheduledFuture<?> poller;
+
+        /**
+         * Starts a check, or joins the one already running.
+         */
+        synchronized CompletableFuture<UpdateCheck> check() {
+            if (inFlight != null && !inFlight.isDone()) {
+                return inFlight;
+            }
+
+            // Every mirror may take its connect and read timeout before the next is tried; past that,
+            // stop the fetch so it doesn't hold up the checks queued behind it
+            long deadlineMs = MIRRORS.size() * 2L * VERSION_CHECK_TIMEOUT_MS;
+            CompletableFuture<UpdateCheck> fetched = new CompletableFuture<>();
+            Future<?> task = executor.submit(() -> fetched.complete(fetch()));
+            CompletableFuture<UpdateCheck> future = fetched
+                    .orTimeout(deadlineMs, TimeUnit.MILLISECONDS)
+                    .exceptionally(e -> {
+                        task.cancel(true);
+                        return new UpdateCheck(Status.FAILED, getCurrentVersion(), null, e);
+                    });
+            future.thenAccept(result -> {
+                lastResult = result;
+                listeners.forEach(listener -> listener.accept(result));
+            });
+            inFlight = future;
+            return future;
+        }
+
+        synchronized void startPolling(long interval, TimeUnit unit) {
+            if (poller == null && interval > 0) {
+                poller = executor.scheduleWithFixedDelay(this::check, interval, interval, unit);
+            }
+        }
+
+        synchronized void shutdown() {
+            if (poller != null) {
+                poller.cancel(false);
+                poller = null;
+            }
+            listeners.clear();
+            executor.shutdownNow();
+        }
+
+        /**
+         * Listeners are called on the update thread, and immediately with the latest result if a
+         * check has already finished.
+         */
+        void addListener(Consumer<UpdateCheck> listener) {
+            listeners.add(listener);
+            UpdateCheck result = lastResult;
+            if (result != null) {
+                listener.accept(result);
+            }
+        }
+
+        void removeListener(Consumer<UpdateCheck> listener) {
+            listeners.remove(listener);
+        }
+
+        private static UpdateCheck fetch() {
+            String currentVersion = getCurrentVersion();
+            try {
+                // Fetch latest version
+                byte[] body = MIRRORS.fetchMetadata(new URL(VERSION_URL), VERSION_CHECK_TIMEOUT_MS);
+                try (BufferedReader reader = new BufferedReader(new InputStreamReader(new ByteArrayInputStream(body)))) {
+                    String latestVersion = reader.readLine().trim();
+                    Status status = latestVersion.equals(currentVersion) ? Status.UP_TO_DATE : Status.UPDATE_AVAILABLE;
+                    return new UpdateCheck(status, currentVersion, latestVersion, null);
+                }
+            } catch (Exception e) {
+                log.warn("Update check failed", e);
+                return new UpdateCheck(Status.FAILED, currentVersion, null, e);
+            }
+        }
+    }
+
+    /**
+     * Client start-up work run while the login screen is showing, so the time a user spends on the
+     * launcher goes into warming the client rather than into a cold start after PLAY. If the work
+     * failed or was cancelled, {@link #await()} runs it again on the caller's thread.
+     */
+    static final class Prefetch<T> {
+        private static final ExecutorService EXECUTOR = Executors.newCachedThreadPool(r -> {
+            Thread thread = new Thread(r, "launcher-prefetch");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        private final Callable<T> task;
+        private Future<T> future;
+
+        Prefetch(Callable<T> task) {
+            this.task = Objects.requireNonNull(task, "task");
+        }
+
+        synchronized void start() {
+            if (future == null) {
+                future = EXECUTOR.submit(task);
+            }
+        }
+
+        synchronized void cancel() {
+            if (future != null && future.cancel(true)) {
+                log.debug("Cancelled client prefetch");
+            }
+        }
+
+        T await() throws Exception {
+            Future<T> pending;
+            synchronized (this) {
+                start();
+                pending = future;
+            }
+
+            try {
+                return pending.get();
+            } catch (CancellationException e) {
+                log.info("Client prefetch was cancelled, loading from cold");
+            } catch (ExecutionException e) {
+                log.warn("Client prefetch failed, loading from cold", e.getCause());
+            }
+            return task.call();
+        }
+    }
+
+    /**
+     * The hosts the launcher downloads from. Every update URL is written against the primary host
+     * and rewritten onto whichever mirror serves it; the list comes from {@code -Dvalkarin.mirrors}
+     * as comma-separated base URLs. At startup every mirror is probed concurrently for latency;
+     * throughput is learned from real transfers, and only measured with a short read when a download
+     * is about to start on a mirror with no figure yet. Requests go to the fastest healthy mirror
+     * first, failing over down the list. Each mirror's record is kept in {@link Preferences}, so a
+     * mirror that failed last session starts out behind the others.
+     */
+    static final class Mirrors {
+        private static final String PRIMARY = "https://valkarin.net/";
+        private static final int PROBE_BYTES = 64 * 1024;
+        private static final long FAILURE_COOLDOWN_MS = TimeUnit.MINUTES.toMillis(10);
+        private static final double SMOOTHING = 0.3;
+        private static final ExecutorService PROBES = Executors.newCachedThreadPool(r -> {
+            Thread thread = new Thread(r, "launcher-mirror-probe");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        interface Call<T> {
+            T call(Mirror mirror, URL source) throws IOException;
+        }
+
+        static final class Mirror {
+            final String base;
+            private final Preferences node;
+            private double latencyMillis;
+            private double bytesPerSecond;
+            private int successes;
+            private int failures;
+            private int consecutiveFailures;
+            private long lastFailure;
+
+            Mirror(String base, Preferences node) {
+                this.base = base;
+                this.node = node;
+                latencyMillis = node.getDouble("latencyMillis", 0);
+                bytesPerSecond = node.getDouble("bytesPerSecond", 0);
+                successes = node.getInt("successes", 0);
+                failures = node.getInt("failures", 0);
+                consecutiveFailures = node.getInt("consecutiveFailures", 0);
+                lastFailure = node.getLong("lastFailure", 0);
+            }
+
+            URL resolve(String url) throws MalformedURLException {
+                return new URL(url.startsWith(PRIMARY) ? base + url.substring(PRIMARY.length()) : url);
+            }
+
+            synchronized boolean isHealthy() {
+                return consecutiveFailures == 0 || System.currentTimeMillis() - lastFailure > FAILURE_COOLDOWN_MS;
+            }
+
+            /**
+             * Expected milliseconds to fetch 1 MB; unmeasured mirrors sort after measured ones.
+             */
+            synchronized double cost() {
+                if (latencyMillis <= 0) {
+                    return Double.MAX_VALUE;
+                }
+                return latencyMillis + (bytesPerSecond > 0 ? 1_000_000 * 1000.0 / bytesPerSecond : 0);
+            }
+
+            synchronized boolean hasThroughput() {
+                return bytesPerSecond > 0;
+            }
+
+            synchronized void recordLatency(long nanos) {
+                double millis = nanos / 1_000_000.0;
+                latencyMillis = latencyMillis > 0 ? latencyMillis + SMOOTHING * (millis - latencyMillis) : millis;
+            }
+
+            /**
+             * Folds a transfer into the throughput estimate; transfers too small to say anything are ignored.
+             */
+            synchronized void recordThroughput(long bytes, long nanos) {
+                if (bytes >= PROBE_BYTES && nanos > 0) {
+                    double rate = bytes * 1_000_000_000.0 / nanos;
+                    bytesPerSecond = bytesPerSecond > 0 ? bytesPerSecond + SMOOTHING * (rate - bytesPerSecond) : rate;
+                }
+            }
+
+            synchronized void recordSuccess() {
+                successes++;
+                consecutiveFailures = 0;
+                save();
+            }
+
+            synchronized void recordFailure() {
+                failures++;
+                consecutiveFailures++;
+                lastFailure = System.currentTimeMillis();
+                save();
+            }
+
+            private void save() {
+                node.put("url", base);
+                node.putDouble("latencyMillis", latencyMillis);
+                node.putDouble("bytesPerSecond", bytesPerSecond);
+                node.putInt("successes", successes);
+                node.putInt("failures", failures);
+                node.putInt("consecutiveFailures", consecutiveFailures);
+                node.putLong("lastFailure", lastFailure);
+            }
+
+            @Override
+            public String toString() {
+                return base;
+            }
+        }
+
+        private final List<Mirror> mirrors = new ArrayList<>();
+
+        Mirrors(String list, Preferences preferences) {
+            for (String base : list.split(",")) {
+                base = base.trim();
+                if (base.isEmpty()) {
+                    continue;
+                }
+                if (!base.endsWith("/")) {
+                    base += "/";
+                }
+                String key = toHex(newSha256().digest(base.getBytes(StandardCharsets.UTF_8))).substring(0, 16);
+                mirrors.add(new Mirror(base, preferences.node(key)));
+            }
+            if (mirrors.isEmpty()) {
+                throw new IllegalArgumentException("No mirrors configured");
+            }
+        }
+
+        static Mirrors fromSystemProperties() {
+            Preferences preferences = Preferences.userNodeForPackage(LoginScreen.class).node("mirrors");
+            return new Mirrors(System.getProperty("valkarin.mirrors", PRIMARY), preferences);
+        }
+
+        /**
+         * The configured mirror with base URL {@code base}, or null.
+         */
+        Mirror find(String base) {
+            for (Mirror mirror : mirrors) {
+                if (mirror.base.equals(base)) {
+                    return mirror;
+                }
+            }
+            return null;
+        }
+
+        int size() {
+            return mirrors.size();
+        }
+
+        /**
+         * Healthy mirrors cheapest first, then the rest; ties keep the configured order.
+         */
+        List<Mirror> ranked() {
+            List<Mirror> ranked = new ArrayList<>(mirrors);
+            ranked.sort(Comparator.comparing((Mirror mirror) -> !mirror.isHealthy()).thenComparingDouble(Mirror::cost));
+            return ranked;
+        }
+
+        /**
+         * Runs {@code call} against each mirror in rank order until one succeeds. Throws a
+         * {@link FileNotFoundException} only when every mirror reported the file missing.
+         */
+        <T> T withFailover(String url, Call<T> call) throws IOException {
+            return withFailover(url, 0, call);
+        }
+
+        /**
+         * As {@link #withFailover(String, Call)}, but starts {@code preferred} places down the healthy
+         * mirrors (wrapping around), so parallel connections for one file spread over several mirrors.
+         */
+        <T> T withFailover(String url, int preferred, Call<T> call) throws IOException {
+            List<Mirror> order = ranked();
+            int healthy = (int) order.stream().filter(Mirror::isHealthy).count();
+            if (healthy > 1) {
+                Collections.rotate(order.subList(0, healthy), -(preferred % healthy));
+            }
+
+            IOException failure = null;
+            for (Mirror mirror : order) {
+                if (Thread.currentThread().isInterrupted()) {
+                    throw new InterruptedIOException("Interrupted before trying " + url + " on " + mirror);
+                }
+                try {
+                    T result = call.call(mirror, mirror.resolve(url));
+                    mirror.recordSuccess();
+                    return result;
+                } catch (IOException e) {
+                    if (isInterrupt(e) || e instanceof DeltaPatch.BaseMismatchException
+                            || e instanceof SegmentedDownload.NotSegmentableException) {
+                        throw e; // Not the mirror's fault; another one won't do better
+                    }
+                    if (!(e instanceof FileNotFoundException)) {
+                        mirror.recordFailure(); // A mirror that lacks one file is behind, not down
+                    }
+                    if (mirrors.size() > 1) {
+                        log.warn("{} failed on {}, trying the next mirror", url, mirror, e);
+                    }
+                    if (failure == null) {
+                        failure = e;
+                    } else if (failure instanceof FileNotFoundException && !(e instanceof FileNotFoundException)) {
+                        e.addSuppressed(failure);
+                        failure = e;
+                    } else {
+                        failure.addSuppressed(e);
+                    }
+                }
+            }
+            throw failure;
+        }
+
+        /**
+         * Fetches update metadata through the {@link MetadataCache}, cached under its primary URL.
+         */
+        byte[] fetchMetadata(URL url, int timeoutMs) throws IOException {
+            // A fresh cache hit reaches no mirror, so it says nothing about their health
+            byte[] fresh = METADATA_CACHE.fresh(url);
+            if (fresh != null) {
+                return fresh;
+            }
+            return withFailover(url.toString(), (mirror, source) -> METADATA_CACHE.fetch(url, source, timeoutMs));
+        }
+
+        /**
+         * Probes every mirror at once for latency: the time to first byte of {@code version.txt}.
+         */
+        CompletableFuture<Void> probeLatency(String latencyUrl) {
+            CompletableFuture<?>[] probes = new CompletableFuture<?>[mirrors.size()];
+            for (int i = 0; i < probes.length; i++) {
+                Mirror mirror = mirrors.get(i);
+                probes[i] = CompletableFuture.runAsync(() -> probeLatency(mirror, latencyUrl), PROBES);
+            }
+            return CompletableFuture.allOf(probes).thenRun(() -> log.debug("Mirror ranking: {}", ranked()));
+        }
+
+        /**
+         * Called before a download starts: reads the start of {@code throughputUrl} from each healthy
+         * mirror that has no throughput figure yet, and waits for those reads. Mirrors already
+         * measured by earlier transfers are not probed again, and a single mirror has nothing to
+         * rank against.
+         */
+        void probeThroughput(String throughputUrl) throws InterruptedIOException {
+            if (mirrors.size() < 2) {
+                return;
+            }
+            List<CompletableFuture<?>> probes = new ArrayList<>();
+            for (Mirror mirror : mirrors) {
+                if (mirror.isHealthy() && !mirror.hasThroughput()) {
+                    probes.add(CompletableFuture.runAsync(() -> probeThroughput(mirror, throughputUrl), PROBES));
+                }
+            }
+            if (probes.isEmpty()) {
+                return;
+            }
+
+            try {
+                CompletableFuture.allOf(probes.toArray(new CompletableFuture<?>[0])).get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while probing mirrors");
+            } catch (ExecutionException e) {
+                log.warn("Mirror throughput probe failed", e.getCause()); // Probes handle their own errors
+            }
+            log.debug("Mirror ranking: {}", ranked());
+        }
+
+        private static void probeLatency(Mirror mirror, String latencyUrl) {
+            try {
+                long start = System.nanoTime();
+                HttpURLConnection connection = openConnection(mirror.resolve(latencyUrl));
+                connection.setConnectTimeout(VERSION_CHECK_TIMEOUT_MS);
+                connection.setReadTimeout(VERSION_CHECK_TIMEOUT_MS);
+                connection.setUseCaches(false);
+                try {
+                    int status = connection.getResponseCode();
+                    if (status != HttpURLConnection.HTTP_OK) {
+                        throw new IOException("Unexpected HTTP " + status);
+                    }
+                    mirror.recordLatency(System.nanoTime() - start);
+                    mirror.recordSuccess();
+                } finally {
+                    connection.disconnect();
+                }
+            } catch (IOException e) {
+                log.info("Mirror {} failed its latency probe", mirror, e);
+                mirror.recordFailure();
+            }
+        }
+
+        private static void probeThroughput(Mirror mirror, String throughputUrl) {
+            try {
+                HttpURLConnection connection = openConnection(mirror.resolve(throughputUrl));
+                connection.setConnectTimeout(VERSION_CHECK_TIMEOUT_MS);
+                connection.setReadTimeout(VERSION_CHECK_TIMEOUT_MS);
+                connection.setUseCaches(false);
+                connection.setRequestProperty("Range", "bytes=0-" + (PROBE_BYTES - 1));
+                try {
+                    int status = connection.getResponseCode();
+                    if (status != HttpURLConnection.HTTP_OK && status != HttpURLConnection.HTTP_PARTIAL) {
+                        throw new IOException("Unexpected HTTP " + status);
+                    }
+                    long start = System.nanoTime();
+                    long read = 0;
+                    byte[] buffer = new byte[16 * 1024];
+                    try (InputStream in = connection.getInputStream()) {
+                        int n;
+                        while (read < PROBE_BYTES && (n = in.read(buffer)) != -1) {
+                            read += n;
+                        }
+                    }
+                    mirror.recordThroughput(read, System.nanoTime() - start);
+                    mirror.recordSuccess();
+                } finally {
+                    connection.disconnect();
+                }
+            } catch (IOException e) {
+                log.info("Mirror {} failed its throughput probe", mirror, e);
+                mirror.recordFailure();
+            }
+        }
+    }
+
+    /**
+     * Small on-disk HTTP cache for update metadata such as {@code version.txt} and {@code manifest.json}.
+     * Each response is stored with its ETag, Last-Modified and freshness deadline. While a response is
+     * within its {@code max-age} it is served without touching the network; once stale it is revalidated
+     * with a conditional request, so an unchanged file costs a body-less 304.
+     */
+    static final class MetadataCache {
+        private final File directory;
+        private final Map<String, Object> locks = new ConcurrentHashMap<>();
+
+        MetadataCache(File directory) {
+            this.directory = directory;
+        }
+
+        byte[] fetch(URL url, int timeoutMs) throws IOException {
+            return fetch(url, url, timeoutMs);
+        }
+
+        /**
+         * Fetches {@code source} but caches it under {@code url}, so a mirror serving the same file
+         * shares one cache entry.
+         */
+        byte[] fetch(URL url, URL source, int timeoutMs) throws IOException {
+            String key = key(url);
+            // Requests for different files run in parallel; only one request per entry at a time
+            synchronized (locks.computeIfAbsent(key, k -> new Object())) {
+                return fetch(url, source, key, timeoutMs);
+            }
+        }
+
+        /**
+         * The cached body of {@code url} if it is still within its {@code max-age}, or null if it has
+         * to be fetched or revalidated. Never touches the network.
+         */
+        byte[] fresh(URL url) throws IOException {
+            String key = key(url);
+            synchronized (locks.computeIfAbsent(key, k -> new Object())) {
+                File bodyFile = new File(directory, key + ".body");
+                Properties meta = loadMeta(url, bodyFile, new File(directory, key + ".properties"));
+                if (!meta.isEmpty() && System.currentTimeMillis() < Long.parseLong(meta.getProperty("expires", "0"))) {
+                    return Files.readAllBytes(bodyFile.toPath());
+                }
+                return null;
+            }
+        }
+
+        private static String key(URL url) {
+            return toHex(newSha256().digest(url.toString().getBytes(StandardCharsets.UTF_8))).substring(0, 16);
+        }
+
+        /**
+         * The entry's metadata, or empty properties if there is no usable entry.
+         */
+        private static Properties loadMeta(URL url, File bodyFile, File metaFile) {
+            Properties meta = new Properties();
+            if (bodyFile.isFile() && metaFile.isFile()) {
+                try (InputStream in = new FileInputStream(metaFile)) {
+                    meta.load(in);
+                } catch (IOException e) {
+                    log.warn("Ignoring unreadable cache entry for {}", url, e);
+                    meta.clear();
+                }
+            }
+
+            try {
+                Long.parseLong(meta.getProperty("expires", "0"));
+            } catch (NumberFormatException e) {
+                log.warn("Ignoring corrupt cache entry for {}", url);
+                meta.clear();
+            }
+            return meta;
+        }
+
+        private byte[] fetch(URL url, URL source, String key, int timeoutMs) throws IOException {
+            File bodyFile = new File(directory, key + ".body");
+            File metaFile = new File(directory, key + ".properties");
+
+            Properties meta = loadMeta(url, bodyFile, metaFile);
+            boolean cached = !meta.isEmpty();
+            if (cached && System.currentTimeMillis() < Long.parseLong(meta.getProperty("expires", "0"))) {
+                return Files.readAllBytes(bodyFile.toPath());
+            }
+
+            HttpURLConnection connection = (HttpURLConnection) source.openConnection();
+            connection.setConnectTimeout(timeoutMs);
+            connection.setReadTimeout(timeoutMs);
+            connection.setUseCaches(false);
+            if (cached && meta.getProperty("etag") != null) {
+                connection.setRequestProperty("If-None-Match", meta.getProperty("etag"));
+            }
+            if (cached && meta.getProperty("lastModified") != null) {
+                connection.setRequestProperty("If-Modified-Since", meta.getProperty("lastModified"));
+            }
+
+            try {
+                int status = connection.getResponseCode();
+                if (status == HttpURLConnection.HTTP_NOT_MODIFIED && cached) {
+                    meta.setProperty("expires", Long.toString(expiry(connection)));
+                    store(metaFile, meta, url);
+                    return Files.readAllBytes(bodyFile.toPath());
+                } else if (status != HttpURLConnection.HTTP_OK) {
+                    throw new IOException("Unexpected HTTP " + status + " for " + url);
+                }
+
+                byte[] body;
+                try (InputStream in = connection.getInputStream()) {
+                    body = in.readAllBytes();
+                }
+
+                String cacheControl = connection.getHeaderField("Cache-Control");
+                if (cacheControl != null && cacheControl.toLowerCase(Locale.ROOT).contains("no-store")) {
+                    bodyFile.delete();
+                    metaFile.delete();
+                    return body;
+                }
+
+                Properties fresh = new Properties();
+                putIfPresent(fresh, "etag", connection.getHeaderField("ETag"));
+                putIfPresent(fresh, "lastModified", connection.getHeaderField("Last-Modified"));
+                fresh.setProperty("expires", Long.toString(expiry(connection)));
+                Transfer.toFile(new ByteArrayInputStream(body), bodyFile, body.length, null, null);
+                store(metaFile, fresh, url);
+                return body;
+            } finally {
+                connection.disconnect();
+            }
+        }
+
+        private static long expiry(HttpURLConnection connection) {
+            String cacheControl = connection.getHeaderField("Cache-Control");
+            if (cacheControl == null) {
+                return 0; // Always revalidate
+            }
+            // no-cache and no-store win over max-age wherever they appear in the header
+            long maxAge = 0;
+            for (String directive : cacheControl.toLowerCase(Locale.ROOT).split(",")) {
+                directive = directive.trim();
+                if (directive.equals("no-cache") || directive.equals("no-store")) {
+                    return 0;
+                }
+                if (directive.startsWith("max-age=")) {
+                    try {
+                        maxAge = Long.parseLong(directive.substring(8).trim());
+                    } catch (NumberFormatException e) {
+                        return 0;
+                    }
+                }
+            }
+            return maxAge > 0 ? System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(maxAge) : 0;
+        }
+
+        private static void putIfPresent(Properties properties, String key, String value) {
+            if (value != null) {
+                properties.setProperty(key, value);
+            }
+        }
+
+        private static void store(File metaFile, Properties meta, URL url) throws IOException {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            meta.store(out, url.toString());
+            byte[] bytes = out.toByteArray();
+            Transfer.toFile(new ByteArrayInputStream(bytes), metaFile, bytes.length, null, null);
+        }
+    }
+
+    private static String getCurrentVersion() {
+        try {
+            File versionFile = new File(LOCAL_VERSION_FILE);
+            if (!versionFile.exists()) return "1.0.0";
+
+            try (BufferedReader reader = new BufferedReader(new FileReader(versionFile))) {
+                return reader.readLine().trim();
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+            return "1.0.0";
+        }
+    }
+
+    private void onBackgroundUpdateCheck(UpdateService.UpdateCheck result) {
+        if (result.status != UpdateService.Status.UPDATE_AVAILABLE) {
+            return;
+        }
+        SwingUtilities.invokeLater(() -> {
+            if (updateStatusLabel != null && !updateStatusLabel.isVisible()) {
+                updateStatusLabel.setText("Update available! (" + result.latestVersion + ")");
+                updateStatusLabel.setForeground(Color.RED);
+                updateStatusLabel.setVisible(true);
+            }
+        });
+    }
+
+    private void updateClient() {
+        SwingWorker<Void, Void> updater = new SwingWorker<>() {
+            @Override
+            protected Void doInBackground() {
+                try {
+                    // Fetch manifest
+                    byte[] manifest = MIRRORS.fetchMetadata(new URL(MANIFEST_URL), READ_TIMEOUT_MS);
+
+                    File manifestFile = new File("manifest.json");
+                    Transfer.toFile(new ByteArrayInputStream(manifest), manifestFile, manifest.length, null, null);
+
+                    // Parse and download updates
+                    parseAndDownloadUpdates(manifestFile);
+
+                    // Save new version
+                    Files.write(Paths.get(LOCAL_VERSION_FILE), "NEW_VERSION".getBytes());
+
+                } catch (Exception e) {
+                    e.printStackTrace();
+                    JOptionPane.showMessageDialog(LoginScreen.this,
+                            "Failed to update the client. Please try again later.",
+                            "Update Error", JOptionPane.ERROR_MESSAGE);
+                }
+                return null;
+            }
+
+            @Override
+            protected void done() {
+                try {
+                    get(); // Check for exceptions
+                    updateStatusLabel.setText("Update completed! Restart to apply changes.");
+                    updateStatusLabel.setForeground(new Color(0, 200, 0));
+
+                    // Show restart dialog
+                    int choice = JOptionPane.showConfirmDialog(
+                            LoginScreen.this,
+                            "The update has been downloaded. Would you like to restart now?",
+                            "Update Complete",
+                            JOptionPane.YES_NO_OPTION,
+                            JOptionPane.QUESTION_MESSAGE
+                    );
+
+                    if (choice == JOptionPane.YES_OPTION) {
+                        restartApplication();
+                    }
+                } catch (Exception e) {
+                    updateStatusLabel.setText("Update failed! Please try again.");
+                    updateStatusLabel.setForeground(Color.RED);
+                    log.error("Update failed", e);
+                }
+            }
+        };
+
+        updater.execute();
+    }
+
+    /**
+     * JVM options that let a client start use the class data archive built after the last update,
+     * or an empty list if there is none for the current jar.
+     */
+    public static List<String> getClassDataSharingOptions() {
+        File jar = ClassDataArchive.runningJar();
+        return jar != null ? ClassDataArchive.jvmOptions(jar) : new ArrayList<>();
+    }
+
+    private void restartApplication() {
+        File jar = ClassDataArchive.runningJar();
+        if (jar == null) {
+            log.error("Failed to restart application: not running from a jar");
+            return;
+        }
+
+        if (Relauncher.inProcess()) {
+            try {
+                // The new copy owns the JVM once this one has stopped its window and background work
+                Relauncher.reload(jar, () -> {
+                    dispose();
+                    UPDATE_SERVICE.shutdown();
+                });
+                return;
+            } catch (Exception | LinkageError e) {
+                log.warn("In-process reload failed, restarting the JVM", e);
+            }
+        }
+
+        // Restart at once; an archive that isn't ready yet is built by the new copy for the launch after
+        ClassDataArchive.cancel();
+        try {
+            Relauncher.restart(jar);
+
+            // Exit current instance
+            System.exit(0);
+        } catch (Exception e) {
+            log.error("Failed to restart application", e);
+        }
+    }
+
+    protected void process(List<Integer> chunks) {
+        // Update progress in UI
+        int latestProgress = chunks.get(chunks.size() - 1);
+        updateStatusLabel.setText("Downloading update: " + latestProgress + "%");
+        updateStatusLabel.setVisible(true);
+
+        // Add a progress color indicator
+        if (latestProgress < 50) {
+            updateStatusLabel.setForeground(new Color(255, 165, 0)); // Orange
+        } else if (latestProgress < 90) {
+            updateStatusLabel.setForeground(new Color(255, 215, 0)); // Gold
+        } else {
+            updateStatusLabel.setForeground(new Color(0, 255, 127)); // Spring Green
+        }
+    }
+
+    private void parseAndDownloadUpdates(File manifestFile) throws IOException {
+        downloadChanged(ManifestEntry.parse(manifestFile), false, false);
+    }
+
+    /**
+     * Downloads every manifest entry whose local copy is missing or doesn't match, and returns how
+     * many files were replaced. Local hashes come from the {@link InstallIndex}, so unchanged files
+     * aren't read unless {@code fullVerify} is set. A {@code repair} keeps files that can't be
+     * checked because their entry has no hash, instead of downloading them again.
+     */
+    private int downloadChanged(List<ManifestEntry> entries, boolean fullVerify, boolean repair) throws IOException {
+        synchronized (downloadEngine) {
+            InstallIndex index = InstallIndex.get();
+            Map<String, String> localHashes = index.hashAll(entries, fullVerify);
+            List<DownloadTask> tasks = new ArrayList<>();
+
+            for (ManifestEntry entry : entries) {
+                File localFile = new File(entry.path); // Save to the same path locally
+                String localSha256 = localHashes.get(entry.path);
+                if (repair ? entry.isIntact(localFile, localSha256) : entry.isUpToDate(localFile, localSha256)) {
+                    continue; // Unchanged since the last update
+                }
+
+                URL fileUrl = new URL(UPDATE_BASE_URL + entry.path); // Construct the file URL
+                String patchPath = localSha256 != null ? entry.patches.get(localSha256) : null;
+                URL patchUrl = patchPath != null ? new URL(UPDATE_BASE_URL + patchPath) : null;
+                tasks.add(new DownloadTask(fileUrl, localFile, entry, patchUrl, localSha256));
+            }
+
+            log.info("{} of {} manifest entries changed", tasks.size(), entries.size());
+            if (!tasks.isEmpty()) {
+                MIRRORS.probeThroughput(SELF_UPDATE_URL);
+            }
+
+            DownloadReport report;
+            try {
+                report = tasks.isEmpty() ? new DownloadReport() : downloadEngine.downloadAll(tasks);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Update download interrupted");
+            }
+
+            for (DownloadTask task : report.getCompleted()) {
+                if (task.entry.sha256 != null) {
+                    index.record(task.entry.path, task.target, task.entry.sha256);
+                }
+            }
+            try {
+                index.save();
+            } catch (IOException e) {
+                log.warn("Failed to save the install index", e);
+            }
+
+            log.info("Downloaded {} of {} update files", report.getCompleted().size(), tasks.size());
+            if (!report.isSuccessful()) {
+                throw report.toException();
+            }
+            return report.getCompleted().size();
+        }
+    }
+
+    /**
+     * Checks the installed files against the last downloaded manifest and re-downloads any that are
+     * missing or damaged. The routine check at startup only hashes files whose size or mtime
+     * changed; {@code full} rehashes everything.
+     */
+    void verifyInstallation(boolean full) {
+        File manifestFile = new File("manifest.json");
+        if (!manifestFile.isFile()) {
+            return; // Nothing installed through the updater yet
+        }
+        if (full) {
+            updateStatusLabel.setText("Verifying installed files...");
+            updateStatusLabel.setForeground(Color.WHITE);
+            updateStatusLabel.setVisible(true);
+        }
+
+        new SwingWorker<Integer, Void>() {
+            @Override
+            protected Integer doInBackground() throws IOException {
+                return downloadChanged(ManifestEntry.parse(manifestFile), full, true);
+            }
+
+            @Override
+            protected void done() {
+                try {
+                    int repaired = get();
+                    if (repaired > 0) {
+                        updateStatusLabel.setText("Repaired " + repaired + " damaged file(s).");
+                        updateStatusLabel.setForeground(new Color(0, 200, 0));
+                        updateStatusLabel.setVisible(true);
+                    } else if (full) {
+                        updateStatusLabel.setText("All files verified.");
+                        updateStatusLabel.setForeground(new Color(0, 200, 0));
+                    }
+                } catch (Exception e) {
+                    log.warn("Install verification failed", e);
+                    updateStatusLabel.setText("Couldn't repair installed files.");
+                    updateStatusLabel.setForeground(Color.RED);
+                    updateStatusLabel.setVisible(true);
+                }
+            }
+        }.execute();
+    }
+
+    /**
+     * Compressed transports a manifest entry can declare with {@code "encoding"}. The encoded copy
+     * is served next to the file under the encoding's suffix and decoded as it streams to disk, so
+     * the manifest's size and SHA-256 are always those of the decoded file.
+     */
+    static final class ContentEncoding {
+        private static final int BUFFER_SIZE = 64 * 1024;
+        private static final Map<String, ContentEncoding> ENCODINGS = new ConcurrentHashMap<>();
+
+        interface Decoder {
+            InputStream decode(InputStream in) throws IOException;
+        }
+
+        static {
+            register("gzip", ".gz", in -> new GZIPInputStream(in, BUFFER_SIZE));
+            register("deflate", ".deflate", in -> new InflaterInputStream(in, new Inflater(), BUFFER_SIZE) {
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        inf.end(); // Only the default inflater is released by close()
+                    }
+                }
+            });
+        }
+
+        final String name;
+        final String suffix;
+        private final Decoder decoder;
+
+        private ContentEncoding(String name, String suffix, Decoder decoder) {
+            this.name = name;
+            this.suffix = suffix;
+            this.decoder = decoder;
+        }
+
+        static void register(String name, String suffix, Decoder decoder) {
+            ENCODINGS.put(name.toLowerCase(Locale.ROOT), new ContentEncoding(name, suffix, decoder));
+        }
+
+        static ContentEncoding forName(String name) throws IOException {
+            ContentEncoding encoding = ENCODINGS.get(name.trim().toLowerCase(Locale.ROOT));
+            if (encoding == null) {
+                throw new IOException("Unsupported manifest encoding: " + name);
+            }
+            return encoding;
+        }
+
+        /**
+         * Decodes {@code in}, failing as soon as the output grows past {@code maxBytes}, so a corrupt
+         * or hostile stream can't fill the disk before the size check.
+         */
+        InputStream decode(InputStream in, long maxBytes) throws IOException {
+            return new FilterInputStream(decoder.decode(in)) {
+                private long decoded;
+
+                @Override
+                public int read() throws IOException {
+                    int b = super.read();
+                    if (b != -1) {
+                        count(1);
+                    }
+                    return b;
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) throws IOException {
+                    int n = super.read(buffer, offset, length);
+                    if (n > 0) {
+                        count(n);
+                    }
+                    return n;
+                }
+
+                private void count(int n) throws IOException {
+                    decoded += n;
+                    if (decoded > maxBytes) {
+                        throw new IOException(name + " stream decodes to more than " + maxBytes + " bytes");
+                    }
+                }
+            };
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    /**
+     * One file listed in {@code manifest.json}. Entries are either a bare path (legacy manifests,
+     * always downloaded) or an object carrying the expected size and SHA-256 of the file:
+     * <pre>
+     * [
+     *     {"path": "client.jar", "size": 31457280, "sha256": "9f86d0...",
+     *      "patches": {"4e07408...": "patches/client.jar/4e07408.vkdp"}},
+     *     "assets/logo.png"
+     * ]
+     * </pre>
+     * {@code patches} maps the SHA-256 of an older release of the file to a {@link DeltaPatch}
+     * that turns it into the current one.
+     */
+    static final class ManifestEntry {
+        private static final Gson GSON = new Gson();
+
+        final String path;
+        final long size;
+        final String sha256;
+        final ContentEncoding encoding;
+        final Map<String, String> patches = new HashMap<>();
+
+        ManifestEntry(String path, long size, String sha256, ContentEncoding encoding) {
+            this.path = path;
+            this.size = size;
+            this.sha256 = sha256;
+            this.encoding = encoding;
+        }
+
+        static List<ManifestEntry> parse(File manifestFile) throws IOException {
+            JsonElement root;
+            try (Reader reader = Files.newBufferedReader(manifestFile.toPath())) {
+                root = GSON.fromJson(reader, JsonElement.class);
+            } catch (RuntimeException e) {
+                throw new IOException("Malformed manifest", e);
+            }
+            if (root == null || !root.isJsonArray()) {
+                throw new IOException("Manifest must be a JSON array");
+            }
+
+            Path installDirectory = Paths.get("").toAbsolutePath().normalize();
+            List<ManifestEntry> entries = new ArrayList<>();
+            for (JsonElement element : (JsonArray) root) {
+                ManifestEntry entry;
+                if (element.isJsonPrimitive()) {
+                    entry = new ManifestEntry(element.getAsString().trim(), -1, null, null);
+                } else {
+                    JsonObject object = element.getAsJsonObject();
+                    entry = new ManifestEntry(
+                            object.get("path").getAsString().trim(),
+                            object.has("size") ? object.get("size").getAsLong() : -1,
+                            object.has("sha256") ? object.get("sha256").getAsString().toLowerCase() : null,
+                            object.has("encoding") ? ContentEncoding.forName(object.get("encoding").getAsString()) : null
+                    );
+                    if (object.has("patches")) {
+                        for (Map.Entry<String, JsonElement> patch : object.getAsJsonObject("patches").entrySet()) {
+                            entry.patches.put(patch.getKey().toLowerCase(), patch.getValue().getAsString());
+                        }
+                    }
+                }
+
+                if (entry.path.isEmpty()) continue; // Skip empty entries
+                if (entry.encoding != null && entry.size < 0) {
+                    throw new IOException("Compressed manifest entry " + entry.path + " must declare its size");
+                }
+                if (!isInside(installDirectory, entry.path)) {
+                    throw new IOException("Refusing manifest path outside the install directory: " + entry.path);
+                }
+                entries.add(entry);
+            }
+            return entries;
+        }
+
+        /**
+         * Whether {@code path} names a file under {@code installDirectory} (the working directory, which
+         * entries are saved relative to). Anything with a root is refused, which covers absolute,
+         * drive-relative and UNC paths on Windows, as is anything whose {@code ..} segments climb out.
+         * Every platform gets the same manifest, so Windows forms are refused everywhere.
+         */
+        private static boolean isInside(Path installDirectory, String path) {
+            boolean driveLetter = path.length() > 1 && path.charAt(1) == ':' && Character.isLetter(path.charAt(0));
+            if (driveLetter || path.indexOf('\\') >= 0) {
+                return false;
+            }
+            Path relative;
+            try {
+                relative = Paths.get(path);
+            } catch (InvalidPathException e) {
+                return false;
+            }
+            if (relative.isAbsolute() || relative.getRoot() != null) {
+                return false;
+            }
+            Path resolved = installDirectory.resolve(relative).normalize();
+            return resolved.startsWith(installDirectory) && !resolved.equals(installDirectory);
+        }
+
+        /**
+         * A local file is current when its size and hash match the manifest. Entries without a hash
+         * can't be compared and are always considered stale.
+         */
+        boolean isUpToDate(File localFile, String localSha256) {
+            if (sha256 == null || localSha256 == null) {
+                return false;
+            }
+            if (size >= 0 && localFile.length() != size) {
+                return false;
+            }
+            return sha256.equals(localSha256);
+        }
+
+        /**
+         * Whether a repair can leave the local file alone. Entries without a hash can't be checked,
+         * so for those the file only has to exist with the expected size; only an update replaces them.
+         */
+        boolean isIntact(File localFile, String localSha256) {
+            if (sha256 == null) {
+                return localFile.isFile() && (size < 0 || localFile.length() == size);
+            }
+            return isUpToDate(localFile, localSha256);
+        }
+
+        void verify(long actualSize, String actualSha256) throws IOException {
+            if (size >= 0 && actualSize != size) {
+                throw new IOException(path + ": expected " + size + " bytes but received " + actualSize);
+            }
+            if (sha256 != null && !sha256.equals(actualSha256)) {
+                throw new IOException(path + ": checksum mismatch");
+            }
+        }
+    }
+
+    static HttpURLConnection openConnection(URL url) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        connection.setConnectTimeout(CONNECT_TIMEOUT_MS);
+        connection.setReadTimeout(READ_TIMEOUT_MS);
+        return connection;
+    }
+
+    /**
+     * Whether {@code e} means the thread was interrupted. A read timeout is also an
+     * {@link InterruptedIOException}, but that one is worth retrying elsewhere.
+     */
+    static boolean isInterrupt(IOException e) {
+        return e instanceof InterruptedIOException && !(e instanceof SocketTimeoutException);
+    }
+
+    static MessageDigest newSha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e); // Every JRE is required to provide SHA-256
+        }
+    }
+
+    static String sha256(File file) throws IOException {
+        MessageDigest digest = newSha256();
+        try (InputStream in = new DigestInputStream(new FileInputStream(file), digest)) {
+            byte[] buffer = new byte[64 * 1024];
+            while (in.read(buffer) != -1) {
+                // Reading drives the digest
+            }
+        }
+        return toHex(digest.digest());
+    }
+
+    static String toHex(byte[] bytes) {
+        StringBuilder sb = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * What is installed, as last seen: size, modification time and SHA-256 for every file the
+     * manifest lists, persisted in {@code launcher-cache/install-index.json}. A file whose size and
+     * mtime still match its record is trusted without reading it, so a routine check only hashes
+     * what changed. Hashing is spread across cores and reads files through memory maps.
+     */
+    static final class InstallIndex {
+        private static final File FILE = new File(CACHE_DIR, "install-index.json");
+        private static final long MAP_CHUNK = 64L * 1024 * 1024;
+        // A mapped file can't be replaced on Windows until the mapping is collected, and a damaged
+        // file is about to be replaced, so read those through a channel instead
+        private static final boolean MAP_FILES = !System.getProperty("os.name", "").startsWith("Windows");
+        private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+        private static final ExecutorService HASHERS = Executors.newFixedThreadPool(
+                Runtime.getRuntime().availableProcessors(), r -> {
+                    Thread thread = new Thread(r, "launcher-install-hash");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        private static InstallIndex instance;
+
+        static final class Record {
+            long size;
+            long mtime;
+            String sha256;
+
+            Record(long size, long mtime, String sha256) {
+                this.size = size;
+                this.mtime = mtime;
+                this.sha256 = sha256;
+            }
+        }
+
+        private final Map<String, Record> records = new ConcurrentHashMap<>();
+
+        private InstallIndex() {
+        }
+
+        static synchronized InstallIndex get() {
+            if (instance == null) {
+                instance = new InstallIndex();
+                if (FILE.isFile()) {
+                    try (Reader reader = Files.newBufferedReader(FILE.toPath())) {
+                        JsonObject root = GSON.fromJson(reader, JsonObject.class);
+                        if (root != null) {
+                            for (Map.Entry<String, JsonElement> entry : root.entrySet()) {
+                                instance.records.put(entry.getKey(), GSON.fromJson(entry.getValue(), Record.class));
+                            }
+                        }
+                    } catch (IOException | RuntimeException e) {
+                        log.warn("Ignoring unreadable install index", e);
+                        instance.records.clear();
+                    }
+                }
+            }
+            return instance;
+        }
+
+        /**
+         * The SHA-256 of every manifest entry that names one and exists locally, keyed by path. With
+         * {@code full} every file is read again; otherwise only files whose size or mtime changed.
+         */
+        Map<String, String> hashAll(List<ManifestEntry> entries, boolean full) throws IOException {
+            List<Callable<Void>> jobs = new ArrayList<>();
+            Map<String, String> hashes = new ConcurrentHashMap<>();
+            for (ManifestEntry entry : entries) {
+                File file = new File(entry.path);
+                if (entry.sha256 == null || !file.isFile()) {
+                    continue;
+                }
+                jobs.add(() -> {
+                    hashes.put(entry.path, hash(entry.path, file, full));
+                    return null;
+                });
+            }
+
+            long start = System.nanoTime();
+            try {
+                for (Future<Void> job : HASHERS.invokeAll(jobs)) {
+                    job.get();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Install verification interrupted");
+            } catch (ExecutionException e) {
+                throw e.getCause() instanceof IOException ? (IOException) e.getCause() : new IOException(e.getCause());
+            }
+            log.debug("Checked {} installed files in {} ms", jobs.size(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            return hashes;
+        }
+
+        /**
+         * Records a file that has just been written and verified as {@code sha256}.
+         */
+        void record(String path, File file, String sha256) {
+            records.put(path, new Record(file.length(), file.lastModified(), sha256));
+        }
+
+        synchronized void save() throws IOException {
+            byte[] bytes = GSON.toJson(new TreeMap<>(records)).getBytes(StandardCharsets.UTF_8);
+            Transfer.toFile(new ByteArrayInputStream(bytes), FILE, bytes.length, null, null);
+        }
+
+        private String hash(String path, File file, boolean full) throws IOException {
+            long size = file.length();
+            long mtime = file.lastModified();
+            Record record = records.get(path);
+            if (!full && record != null && record.size == size && record.mtime == mtime && record.sha256 != null) {
+                return record.sha256;
+            }
+
+            String sha256 = sha256Of(file);
+            records.put(path, new Record(size, mtime, sha256));
+            return sha256;
+        }
+
+        /**
+         * Hashes a file the fastest way the platform allows.
+         */
+        static String sha256Of(File file) throws IOException {
+            return MAP_FILES ? sha256Mapped(file) : sha256(file);
+        }
+
+        static String sha256Mapped(File file) throws IOException {
+            MessageDigest digest = newSha256();
+            try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+                long size = channel.size();
+                for (long position = 0; position < size; position += MAP_CHUNK) {
+                    digest.update(channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(MAP_CHUNK, size - position)));
+                }
+            }
+            return toHex(digest.digest());
+        }
+    }
+
+    /**
+     * A single file to fetch: where it comes from and where it is written locally.
+     */
+    static final class DownloadTask {
+        final URL source;
+        final File target;
+        final ManifestEntry entry;
+        final URL patch;
+        final String localSha256;
+
+        DownloadTask(URL source, File target, ManifestEntry entry, URL patch, String localSha256) {
+            this.source = source;
+            this.target = target;
+            this.entry = entry;
+            this.patch = patch;
+            this.localSha256 = localSha256;
+        }
+    }
+
+    /**
+     * Combined outcome of a batch download: every file that landed, every file no mirror has, and
+     * every file that failed together with the reason.
+     */
+    static final class DownloadReport {
+        private final List<DownloadTask> completed = new ArrayList<>();
+        private final List<DownloadTask> missing = new ArrayList<>();
+        private final Map<DownloadTask, Exception> failures = new ConcurrentHashMap<>();
+
+        List<DownloadTask> getCompleted() {
+            return completed;
+        }
+
+        List<DownloadTask> getMissing() {
+            return missing;
+        }
+
+        Map<DownloadTask, Exception> getFailures() {
+            return failures;
+        }
+
+        boolean isSuccessful() {
+            return failures.isEmpty();
+        }
+
+        IOException toException() {
+            IOException e = new IOException(failures.size() + " update file(s) failed to download");
+            failures.forEach((task, cause) -> {
+                log.warn("Failed to download {}", task.source, cause);
+                e.addSuppressed(cause);
+            });
+            return e;
+        }
+    }
+
+    /**
+     * Downloads a batch of files on a bounded worker pool. Connections to any single host are
+     * capped so a large manifest cannot open more sockets to the update server than it allows,
+     * and the batch takes roughly as long as its slowest file rather than the sum of all of them.
+     */
+    static final class DownloadEngine {
+        private final int workers;
+        private final int maxConnectionsPerHost;
+        private final Map<String, Semaphore> hostPermits = new ConcurrentHashMap<>();
+
+        interface HostCall<T> {
+            T call() throws IOException;
+        }
+
+        DownloadEngine(int workers, int maxConnectionsPerHost) {
+            this.workers = Math.max(1, workers);
+            this.maxConnectionsPerHost = Math.max(1, maxConnectionsPerHost);
+        }
+
+        DownloadReport downloadAll(List<DownloadTask> tasks) throws InterruptedException {
+            DownloadReport report = new DownloadReport();
+            if (tasks.isEmpty()) {
+                return report;
+            }
+
+            ExecutorService pool = Executors.newFixedThreadPool(Math.min(workers, tasks.size()), r -> {
+                Thread thread = new Thread(r, "launcher-download");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+            try {
+                List<Future<DownloadTask>> futures = new ArrayList<>();
+                for (DownloadTask task : tasks) {
+                    futures.add(pool.submit(() -> {
+                        download(task);
+                        return task;
+                    }));
+                }
+
+                for (int i = 0; i < futures.size(); i++) {
+                    try {
+                        report.getCompleted().add(futures.get(i).get());
+                    } catch (ExecutionException e) {
+                        Throwable cause = e.getCause();
+                        if (cause instanceof FileNotFoundException) {
+                            // A file no mirror has is logged and skipped; the rest of the update still applies
+                            log.warn("File not found on server, skipping: {}", tasks.get(i).source);
+                            report.getMissing().add(tasks.get(i));
+                            continue;
+                        }
+                        report.getFailures().put(tasks.get(i), cause instanceof Exception ? (Exception) cause : e);
+                    }
+                }
+            } finally {
+                pool.shutdownNow();
+            }
+            return report;
+        }
+
+        private void download(DownloadTask task) throws IOException {
+            if (task.patch != null) {
+                try {
+                    File patched = new File(task.target.getPath() + ".patched");
+                    MIRRORS.withFailover(task.patch.toString(), (mirror, source) -> withHostPermit(source, () -> {
+                        DeltaPatch.download(source, task.target, task.localSha256, patched);
+                        return null;
+                    }));
+                    task.entry.verify(patched.length(), sha256(patched));
+                    Transfer.commit(patched, task.target);
+                    return;
+                } catch (IOException e) {
+                    if (isInterrupt(e)) {
+                        throw e;
+                    }
+                    log.warn("Patch {} could not be applied, downloading {} in full", task.patch, task.entry.path, e);
+                }
+            }
+
+            if (task.entry.encoding != null) {
+                downloadEncoded(task);
+                return;
+            }
+
+            if (task.entry.size >= SegmentedDownload.MIN_SIZE) {
+                File segmentFile = new File(task.target.getPath() + ".segments");
+                SegmentedDownload download = new SegmentedDownload(task.source.toString(), segmentFile, task.entry.sha256, this);
+                try {
+                    Transfer.Result result = download.download(null);
+                    try {
+                        task.entry.verify(segmentFile.length(), result.sha256);
+                    } catch (IOException e) {
+                        download.clear();
+                        throw e;
+                    }
+                    log.debug("{}: {} over parallel connections", task.entry.path, result);
+                    Transfer.commit(segmentFile, task.target);
+                    return;
+                } catch (SegmentedDownload.NotSegmentableException e) {
+                    log.warn("{} can't be fetched in segments, continuing over one connection", task.entry.path, e);
+                }
+            }
+
+            // Every mirror continues the same part file, so failing over keeps what already arrived
+            File partFile = new File(task.target.getPath() + ".part");
+            MIRRORS.withFailover(task.source.toString(), (mirror, source) -> withHostPermit(source, () -> {
+                ResumableDownload download = new ResumableDownload(source, partFile, task.entry.sha256);
+                Transfer.Result result = download.download(null);
+                mirror.recordThroughput(result.bytes, result.nanos);
+                try {
+                    task.entry.verify(partFile.length(), task.entry.sha256 != null ? result.sha256 : null);
+                } catch (IOException e) {
+                    download.clear();
+                    throw e;
+                }
+                log.debug("{}: {} from {}", task.entry.path, result, mirror);
+                return null;
+            }));
+            Transfer.commit(partFile, task.target);
+        }
+
+        /**
+         * Streams a compressed copy through its decoder straight into place, hashing the decoded
+         * bytes on the way. Compressed streams can't be resumed or split by byte range, so a failed
+         * attempt starts over on the next mirror.
+         */
+        private void downloadEncoded(DownloadTask task) throws IOException {
+            ManifestEntry entry = task.entry;
+            MIRRORS.withFailover(task.source + entry.encoding.suffix, (mirror, source) -> withHostPermit(source, () -> {
+                HttpURLConnection connection = openConnection(source);
+                try {
+                    int status = connection.getResponseCode();
+                    if (status == HttpURLConnection.HTTP_NOT_FOUND) {
+                        throw new FileNotFoundException("File not found on server: " + source);
+                    } else if (status != HttpURLConnection.HTTP_OK) {
+                        throw new IOException("Unexpected HTTP " + status + " for " + source);
+                    }
+
+                    long encodedLength = connection.getContentLengthLong();
+                    Transfer.Result result;
+                    try (InputStream in = entry.encoding.decode(connection.getInputStream(), entry.size)) {
+                        result = Transfer.toFile(in, task.target, entry.size, null,
+                                decoded -> entry.verify(decoded.bytes, entry.sha256 != null ? decoded.sha256 : null));
+                    }
+                    if (encodedLength > 0) {
+                        mirror.recordThroughput(encodedLength, result.nanos);
+                    }
+                    log.debug("{}: {} decoded from {} {} bytes", entry.path, result, encodedLength, entry.encoding);
+                    return null;
+                } finally {
+                    connection.disconnect();
+                }
+            }));
+        }
+
+        int availablePermits(String host) {
+            return hostPermits.computeIfAbsent(host, key -> new Semaphore(maxConnectionsPerHost)).availablePermits();
+        }
+
+        <T> T withHostPermit(URL source, HostCall<T> call) throws IOException {
+            Semaphore permits = hostPermits.computeIfAbsent(source.getHost(),
+                    host -> new Semaphore(maxConnectionsPerHost));
+            try {
+                permits.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted waiting for a connection to " + source.getHost());
+            }
+            try {
+                return call.call();
+            } finally {
+                permits.release();
+            }
+        }
+    }
+
+    private void showStyledMessage(String message) {
+        JDialog dialog = new JDialog(this, "Message", true);
+        dialog.setSize(300, 150);
+        dialog.setLocationRelativeTo(this);
+        dialog.setUndecorated(true);
+
+        // Main panel with styling
+        JPanel panel = new JPanel();
+        panel.setLayout(new BorderLayout());
+        panel.setBackground(new Color(34, 45, 67));
+        panel.setBorder(BorderFactory.createLineBorder(new Color(147, 51, 234), 2));
+
+        // Message label
+        JLabel label = new JLabel(message, SwingConstants.CENTER);
+        label.setForeground(Color.WHITE);
+        label.setFont(new Font("SansSerif", Font.BOLD, 16));
+        panel.add(label, BorderLayout.CENTER);
+
+        // OK Button
+        JButton okButton = new JButton("OK");
+        okButton.setBackground(new Color(147, 51, 234));
+        okButton.setForeground(Color.WHITE);
+        okButton.setFocusPainted(false);
+        okButton.setFont(new Font("SansSerif", Font.BOLD, 14));
+        okButton.setBorder(BorderFactory.createEmptyBorder(5, 15, 5, 15));
+        okButton.setCursor(new Cursor(Cursor.HAND_CURSOR));
+        okButton.addActionListener(e -> dialog.dispose());
+        JPanel buttonPanel = new JPanel();
+        buttonPanel.setBackground(new Color(34, 45, 67));
+        buttonPanel.add(okButton);
+
+        panel.add(buttonPanel, BorderLayout.SOUTH);
+
+        dialog.add(panel);
+        dialog.setVisible(true);
+    }
+
+    private JButton createUpdateButton() {
+        JButton updateButton = new JButton("Check for Updates") {
+            private final RoundRectangle2D.Float shape = new RoundRectangle2D.Float();
+            private GradientPaint gradient;
+            private StaticText label;
+
+            @Override
+            protected void paintComponent(Graphics g) {
+                Graphics2D g2 = (Graphics2D) g.create();
+                renderQuality.applyTo(g2);
+
+                // Gradient background for button
+                if (gradient == null || gradient.getPoint2().getX() != getWidth()) {
+                    gradient = new GradientPaint(
+                            0, 0, buttonStartColor,
+                            getWidth(), 0, buttonEndColor
+                    );
+                }
+                g2.setPaint(gradient);
+                shape.setRoundRect(0, 0, getWidth(), getHeight(), 15, 15);
+                g2.fill(shape);
+
+                if (getModel().isRollover()) {
+                    g2.setColor(Styles.white(50));
+                    g2.fill(shape);
+                }
+
+                if (label == null || !label.text.equals(getText())) {
+                    label = new StaticText(getText(), Styles.BUTTON_FONT);
+                }
+                g2.setColor(Color.WHITE);
+                label.drawCentered(g2, getWidth(), getHeight(), 0, 0);
+
+                g2.dispose();
+            }
+        };
+
+        updateButton.setBorder(BorderFactory.createEmptyBorder());
+        updateButton.setContentAreaFilled(false);
+        updateButton.setFocusPainted(false);
+        updateButton.setCursor(new Cursor(Cursor.HAND_CURSOR));
+
+        updateButton.addActionListener(e -> {
+            updateStatusLabel.setText("Checking for updates...");
+            updateStatusLabel.setForeground(Color.WHITE);
+            updateStatusLabel.setVisible(true);
+            updateButton.setEnabled(false);
+
+            UPDATE_SERVICE.check().thenAccept(result -> SwingUtilities.invokeLater(() -> {
+                updateButton.setEnabled(true);
+                showUpdateCheckResult(result, updateButton);
+            }));
+        });
+
+        return updateButton;
+    }
+
+    private void showUpdateCheckResult(UpdateService.UpdateCheck result, JButton updateButton) {
+        if (result.status == UpdateService.Status.UPDATE_AVAILABLE) {
+            updateStatusLabel.setText("Update available!");
+            updateStatusLabel.setForeground(Color.RED);
+
+            int choice = JOptionPane.showConfirmDialog(
+                    LoginScreen.this,
+                    "An update is available. Would you like to download it now?",
+                    "Update Available",
+                    JOptionPane.YES_NO_OPTION,
+                    JOptionPane.QUESTION_MESSAGE
+            );
+
+            if (choice == JOptionPane.YES_OPTION) {
+                updateStatusLabel.setText("Starting download...");
+                updateStatusLabel.setForeground(Color.WHITE);
+                downloadAndInstallUpdate();
+
+                // Disable the update button during download
+                updateButton.setEnabled(false);
+            }
+        } else if (result.status == UpdateService.Status.FAILED) {
+            updateStatusLabel.setText("Couldn't reach the update server.");
+            updateStatusLabel.setForeground(Color.RED);
+        } else {
+            updateStatusLabel.setText("Client is up-to-date!");
+            updateStatusLabel.setForeground(new Color(0, 200, 0));
+        }
+    }
+
+    /**
+     * The SHA-256 published next to the launcher jar as {@code valkarin.jar.sha256} (plain, or in
+     * {@code sha256sum} format), or null if there is none.
+     */
+    private static String publishedSelfUpdateSha256() {
+        try {
+            String text = new String(MIRRORS.fetchMetadata(new URL(SELF_UPDATE_URL + ".sha256"), READ_TIMEOUT_MS),
+                    StandardCharsets.US_ASCII).trim();
+            String sha256 = text.split("\\s+")[0].toLowerCase(Locale.ROOT);
+            if (sha256.matches("[0-9a-f]{64}")) {
+                return sha256;
+            }
+            log.warn("Ignoring malformed checksum published for {}", SELF_UPDATE_URL);
+        } catch (IOException e) {
+            log.debug("No checksum published for {}", SELF_UPDATE_URL, e);
+        }
+        return null;
     }
 
     private void downloadAndInstallUpdate() {
         SwingWorker<Void, Integer> worker = new SwingWorker<>() {
             @Override
-            protected Void doInBackground() throws Exception {
+            protected Void doInBackground() throws Exception {
+                try {
+                    // Get current JAR location
+                    String currentPath = LoginScreen.class.getProtectionDomain()
+                            .getCodeSource().getLocation().toURI().getPath();
+                    File currentJar = new File(currentPath);
+
+                    // Prefer a delta patch from the running jar, then fall back to the full
+                    // JAR, resuming any earlier partial download
+                    File newJar = new File(currentJar.getParent(), "valkarin.jar.patched");
+                    String currentSha256 = sha256(currentJar);
+                    try {
+                        File patched = newJar;
+                        MIRRORS.withFailover(SELF_UPDATE_PATCH_URL + currentSha256 + ".vkdp", (mirror, source) -> {
+                            DeltaPatch.download(source, currentJar, currentSha256, patched);
+                            return null;
+                        });
+                        log.info("Applied self-update patch for {}", currentSha256);
+                    } catch (IOException e) {
+                        log.info("No usable self-update patch, downloading the full jar", e);
+                        Transfer.Listener progress = (written, total) -> publish((int) ((written * 100.0) / total));
+                        MIRRORS.probeThroughput(SELF_UPDATE_URL);
+                        String publishedSha256 = publishedSelfUpdateSha256();
+                        File segmentFile = new File(currentJar.getParent(), "valkarin.jar.segments");
+                        try {
+                            new SegmentedDownload(SELF_UPDATE_URL, segmentFile, publishedSha256, downloadEngine)
+                                    .download(progress);
+                            newJar = segmentFile;
+                        } catch (SegmentedDownload.NotSegmentableException ex) {
+                            log.info("Jar can't be fetched in segments, falling back to a single connection", ex);
+                            File partFile = new File(currentJar.getParent(), "valkarin.jar.part");
+                            newJar = partFile;
+                            MIRRORS.withFailover(SELF_UPDATE_URL, (mirror, source) -> {
+                                ResumableDownload download = new ResumableDownload(source, partFile, publishedSha256);
+                                Transfer.Result result = download.download(progress);
+                                mirror.recordThroughput(result.bytes, result.nanos);
+                                if (publishedSha256 != null && !publishedSha256.equals(result.sha256)) {
+                                    download.clear();
+                                    throw new IOException("Downloaded jar doesn't match the published checksum");
+                                }
+                                return null;
+                            });
+                        }
+                    }
+
+                    // Create backup of current JAR
+                    File backupFile = new File(currentJar.getParent(), "valkarin.jar.backup");
+                    if (backupFile.exists()) backupFile.delete();
+                    Files.copy(currentJar.toPath(), backupFile.toPath());
+
+                    // Replace current JAR with new version
+                    Transfer.commit(newJar, currentJar);
+
+                    // The restart starts this jar, so dump its class data archive while the user
+                    // reads the restart prompt
+                    ClassDataArchive.buildAsync(currentJar.getAbsoluteFile());
+
+                    return null;
+                } catch (Exception e) {
+                    log.error("Failed to update client", e);
+                    throw e;
+                }
+            }
+
+            @Override
+            protected void process(List<Integer> chunks) {
+                LoginScreen.this.process(chunks);
+            }
+
+            @Override
+            protected void done() {
+                try {
+                    get(); // Check for exceptions
+                    updateStatusLabel.setText("Update installed! Restart to apply changes.");
+                    updateStatusLabel.setForeground(new Color(0, 200, 0));
+
+                    int choice = JOptionPane.showConfirmDialog(
+                            LoginScreen.this,
+                            "The update has been installed. Would you like to restart now?",
+                            "Update Complete",
+                            JOptionPane.YES_NO_OPTION,
+                            JOptionPane.QUESTION_MESSAGE
+                    );
+
+                    if (choice == JOptionPane.YES_OPTION) {
+                        restartApplication();
+                    }
+                } catch (Exception e) {
+                    updateStatusLabel.setText("Download interrupted. Try again to resume.");
+                    updateStatusLabel.setForeground(Color.RED);
+                }
+            }
+        };
+
+        worker.execute();
+    }
+
+    /**
+     * Application Class Data Sharing for the launcher jar. Once a self-update replaces the jar, its
+     * classes are dumped into a CDS archive in the background, so a later JVM maps them already
+     * parsed and verified instead of loading them from scratch. A restart doesn't wait for the dump:
+     * the new copy dumps its own archive shortly after start if none exists, for the launch after.
+     * Archives are named after the jar's SHA-256, so a changed jar never picks up a stale archive;
+     * the JVM falls back to normal loading if one doesn't apply.
+     */
+    static final class ClassDataArchive {
+        private static final File ARCHIVE_DIR = new File(CACHE_DIR, "cds");
+        private static final long DUMP_TIMEOUT_MINUTES = 5;
+        private static final long STARTUP_DUMP_DELAY_SECONDS = 30;
+        private static final Map<String, String> JAR_HASHES = new ConcurrentHashMap<>();
+        private static final ExecutorService EXECUTOR = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "launcher-cds");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+
+        private static volatile Process dump;
+
+        private ClassDataArchive() {
+        }
+
+        /**
+         * The jar this class was loaded from, or null when running from a classes directory.
+         */
+        static File runningJar() {
+            try {
+                File file = new File(LoginScreen.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+                return file.isFile() && file.getName().endsWith(".jar") ? file.getAbsoluteFile() : null;
+            } catch (Exception e) {
+                log.debug("Couldn't locate the running jar", e);
+                return null;
+            }
+        }
+
+        /**
+         * JVM options that start {@code jar} with its archive, or none if no archive has been built for it.
+         */
+        static List<String> jvmOptions(File jar) {
+            List<String> options = new ArrayList<>();
+            try {
+                File archive = archiveFor(jar, jarSha256(jar));
+                if (archive.length() > 0) {
+                    options.add("-Xshare:auto");
+                    options.add("-XX:SharedArchiveFile=" + archive.getAbsolutePath());
+                }
+            } catch (IOException e) {
+                log.debug("Couldn't check the class data archive for {}", jar, e);
+            }
+            return options;
+        }
+
+        static CompletableFuture<File> buildAsync(File jar) {
+            CompletableFuture<File> future = new CompletableFuture<>();
+            EXECUTOR.execute(() -> {
+                try {
+                    future.complete(build(jar));
+                } catch (Exception e) {
+                    future.completeExceptionally(e);
+                }
+            });
+            future.whenComplete((archive, error) -> {
+                if (error != null) {
+                    log.warn("Failed to build class data archive for {}", jar, error);
+                } else {
+                    log.info("Class data archive ready: {}", archive);
+                }
+            });
+            return future;
+        }
+
+        /**
+         * Dumps an archive for the running jar if it has none, a while after start so the dump
+         * doesn't compete with the launcher's own start-up. A jar whose dump failed once is not
+         * tried again.
+         */
+        static void buildIfMissing() {
+            File jar = runningJar();
+            if (jar == null) {
+                return;
+            }
+            CompletableFuture.runAsync(() -> {
+                try {
+                    File archive = archiveFor(jar, jarSha256(jar));
+                    File failed = new File(archive.getPath() + ".failed");
+                    if (archive.length() > 0 || failed.exists()) {
+                        return;
+                    }
+                    try {
+                        log.info("Class data archive ready: {}", build(jar));
+                    } catch (IOException e) {
+                        log.warn("Failed to build class data archive for {}", jar, e);
+                        failed.createNewFile();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (IOException e) {
+                    log.debug("Couldn't check the class data archive for {}", jar, e);
+                }
+            }, CompletableFuture.delayedExecutor(STARTUP_DUMP_DELAY_SECONDS, TimeUnit.SECONDS, EXECUTOR));
+        }
+
+        /**
+         * Kills a dump in progress, which would otherwise outlive this JVM.
+         */
+        static void cancel() {
+            Process process = dump;
+            if (process != null) {
+                process.destroyForcibly();
+            }
+        }
+
+        /**
+         * The jar's SHA-256, rehashed only when its size or modification time changes.
+         */
+        private static String jarSha256(File jar) throws IOException {
+            String key = jar.getAbsolutePath() + ':' + jar.length() + ':' + jar.lastModified();
+            String sha256 = JAR_HASHES.get(key);
+            if (sha256 == null) {
+                sha256 = sha256(jar);
+                JAR_HASHES.put(key, sha256);
+            }
+            return sha256;
+        }
+
+        private static File archiveFor(File jar, String sha256) {
+            return new File(ARCHIVE_DIR, jar.getName() + "-" + sha256 + ".jsa");
+        }
+
+        private static File build(File jar) throws IOException, InterruptedException {
+            File archive = archiveFor(jar, jarSha256(jar));
+            if (archive.length() > 0) {
+                return archive;
+            }
+            ARCHIVE_DIR.mkdirs();
+            deleteStale(jar, archive);
+
+            File classList = new File(ARCHIVE_DIR, archive.getName() + ".classlist");
+            writeClassList(jar, classList);
+
+            // The archive only applies to the exact classpath it was dumped with, so use the same
+            // absolute jar path the relaunch does
+            File temp = new File(ARCHIVE_DIR, archive.getName() + ".tmp");
+            List<String> command = new ArrayList<>();
+            command.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+            command.add("-Xshare:dump");
+            command.add("-XX:SharedClassListFile=" + classList.getAbsolutePath());
+            command.add("-XX:SharedArchiveFile=" + temp.getAbsolutePath());
+            command.add("-cp");
+            command.add(jar.getAbsolutePath());
+
+            long start = System.nanoTime();
+            Process process = new ProcessBuilder(command)
+                    .redirectErrorStream(true)
+                    .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                    .start();
+            dump = process;
+            try {
+                if (!process.waitFor(DUMP_TIMEOUT_MINUTES, TimeUnit.MINUTES)) {
+                    throw new IOException("Archive dump timed out");
+                }
+                if (process.exitValue() != 0 || temp.length() == 0) {
+                    throw new IOException("Archive dump exited with " + process.exitValue());
+                }
+                Transfer.commit(temp, archive);
+            } finally {
+                dump = null;
+                process.destroyForcibly();
+                Files.deleteIfExists(temp.toPath());
+                Files.deleteIfExists(classList.toPath());
+            }
+
+            log.debug("Dumped class data archive for {} in {} ms", jar.getName(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            return archive;
+        }
+
+        /**
+         * Every class in {@code jar}, preceded by the JDK's own default class list so the archive
+         * still covers the core classes the default CDS archive would have.
+         */
+        private static void writeClassList(File jar, File classList) throws IOException {
+            List<String> classes = new ArrayList<>();
+            Path jdkClassList = Paths.get(System.getProperty("java.home"), "lib", "classlist");
+            if (Files.isRegularFile(jdkClassList)) {
+                classes.addAll(Files.readAllLines(jdkClassList, StandardCharsets.UTF_8));
+            }
+
+            try (JarFile jarFile = new JarFile(jar)) {
+                Enumeration<JarEntry> entries = jarFile.entries();
+                while (entries.hasMoreElements()) {
+                    String name = entries.nextElement().getName();
+                    if (name.endsWith(".class") && !name.startsWith("META-INF/") && !name.endsWith("module-info.class")) {
+                        classes.add(name.substring(0, name.length() - ".class".length()));
+                    }
+                }
+            }
+            Files.write(classList.toPath(), classes, StandardCharsets.UTF_8);
+        }
+
+        private static void deleteStale(File jar, File current) {
+            File[] files = ARCHIVE_DIR.listFiles((dir, name) -> name.startsWith(jar.getName() + "-"));
+            if (files == null) {
+                return;
+            }
+            for (File file : files) {
+                if (!file.equals(current) && !file.delete()) {
+                    log.debug("Couldn't delete stale class data archive {}", file);
+                }
+            }
+        }
+    }
+
+    /**
+     * Starts the updated launcher. By default a new JVM is started with the original JVM arguments.
+     * With {@code -Dvalkarin.reload=inprocess}, and only when this copy of the launcher was itself
+     * loaded by a closable child class loader, the new jar is instead loaded in a fresh class loader
+     * and its {@code Main-Class} started on a new thread. Before that, this copy closes its window and
+     * stops its static executors, and its loader is closed only if all of their threads ended, so no
+     * code of the old copy runs once its jar is gone. Under {@code java -jar} the launcher lives in the
+     * system class loader, which can't be released, so it always restarts.
+     */
+    static final class Relauncher {
+        private static final long STOP_TIMEOUT_SECONDS = 10;
+        private static volatile String[] launchArguments;
+
+        private Relauncher() {
+        }
+
+        static void setLaunchArguments(String[] args) {
+            launchArguments = args.clone();
+        }
+
+        static boolean inProcess() {
+            return "inprocess".equalsIgnoreCase(System.getProperty("valkarin.reload", "restart"))
+                    && isClosable(LoginScreen.class.getClassLoader());
+        }
+
+        private static boolean isClosable(ClassLoader loader) {
+            return loader instanceof URLClassLoader && loader != ClassLoader.getSystemClassLoader();
+        }
+
+        /**
+         * Loads {@code jar}'s main class, then runs {@code stopCurrent} on the calling thread (the
+         * EDT) and hands over once this copy's background threads have ended. Nothing is stopped if
+         * the new jar can't be loaded.
+         */
+        static void reload(File jar, Runnable stopCurrent) throws Exception {
+            String mainClassName;
+            try (JarFile jarFile = new JarFile(jar)) {
+                Manifest manifest = jarFile.getManifest();
+                mainClassName = manifest != null ? manifest.getMainAttributes().getValue(Attributes.Name.MAIN_CLASS) : null;
+            }
+            if (mainClassName == null) {
+                throw new IOException(jar.getName() + " has no Main-Class");
+            }
+
+            // The platform loader as parent keeps the old application classes out of sight
+            URLClassLoader loader = new URLClassLoader("valkarin-" + jar.getName(),
+                    new URL[]{jar.toURI().toURL()}, ClassLoader.getPlatformClassLoader());
+            Method main;
+            try {
+                main = Class.forName(mainClassName, false, loader).getMethod("main", String[].class);
+                if (!Modifier.isStatic(main.getModifiers())) {
+                    throw new NoSuchMethodException(mainClassName + ".main is not static");
+                }
+            } catch (ReflectiveOperationException | LinkageError e) {
+                loader.close();
+                throw e;
+            }
+
+            String[] args = arguments();
+            ClassLoader previous = LoginScreen.class.getClassLoader();
+            stopCurrent.run();
+            Thread thread = new Thread(() -> {
+                boolean stopped = false;
+                try {
+                    stopped = stopBackgroundWork();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+
+                try {
+                    main.invoke(null, (Object) args);
+                } catch (InvocationTargetException e) {
+                    log.error("Reloaded client failed to start", e.getCause());
+                } catch (IllegalAccessException e) {
+                    log.error("Reloaded client failed to start", e);
+                }
+
+                // Closing the loader under code that is still running would fail its next class load
+                if (!stopped) {
+                    log.warn("The previous client copy didn't stop in time; keeping its class loader open");
+                } else if (isClosable(previous)) {
+                    try {
+                        ((URLClassLoader) previous).close();
+                    } catch (IOException e) {
+                        log.debug("Couldn't close the previous client loader", e);
+                    }
+                }
+            }, "main");
+            thread.setContextClassLoader(loader);
+            thread.start();
+            log.info("Reloaded {} in process", jar.getName());
+        }
+
+        /**
+         * Shuts down every static executor of this copy and waits for its threads, then lets the
+         * EDT run whatever this copy queued before its window closed. Until then those threads, and
+         * their context class loaders, keep the old copy's classes reachable.
+         *
+         * @return whether everything finished within {@link #STOP_TIMEOUT_SECONDS}
+         */
+        private static boolean stopBackgroundWork() throws InterruptedException {
+            List<ExecutorService> executors = Arrays.asList(UPDATE_SERVICE.executor, Prefetch.EXECUTOR,
+                    Mirrors.PROBES, InstallIndex.HASHERS, ClassDataArchive.EXECUTOR, SegmentedDownload.CONNECTIONS);
+            executors.forEach(ExecutorService::shutdownNow);
+
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(STOP_TIMEOUT_SECONDS);
+            for (ExecutorService executor : executors) {
+                if (!executor.awaitTermination(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+                    return false;
+                }
+            }
+            try {
+                EventQueue.invokeAndWait(() -> {
+                });
+            } catch (InvocationTargetException e) {
+                return false;
+            }
+            return true;
+        }
+
+        static void restart(File jar) throws IOException {
+            List<String> command = new ArrayList<>();
+            command.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+            for (String argument : ManagementFactory.getRuntimeMXBean().getInputArguments()) {
+                // The class data archive belongs to the old jar; the new one gets its own below
+                if (!argument.startsWith("-Xshare:") && !argument.startsWith("-XX:SharedArchiveFile=")) {
+                    command.add(argument);
+                }
+            }
+            command.addAll(ClassDataArchive.jvmOptions(jar));
+            command.add("-jar");
+            command.add(jar.getAbsolutePath());
+            command.addAll(Arrays.asList(arguments()));
+
+            new ProcessBuilder(command).inheritIO().start();
+        }
+
+        /**
+         * The program arguments recorded with {@link #setLaunchArguments}. The JVM keeps no reliable
+         * copy of them (its command line property can't tell a jar path with spaces from arguments),
+         * so without that call the new copy starts without arguments.
+         */
+        private static String[] arguments() {
+            String[] args = launchArguments;
+            if (args == null) {
+                log.warn("Launch arguments were not recorded; restarting without them");
+                return new String[0];
+            }
+            return args;
+        }
+    }
+
+    /**
+     * The one path every download takes from socket to disk. Bytes are gathered into a large buffer
+     * and written through a {@link FileChannel}, so a write costs one syscall per 256 KB rather than
+     * per KB. Whole-file downloads land in a temp file beside the target and are fsynced, checked and
+     * then atomically renamed into place, so a crash never leaves a half-written file under a real name.
+     */
+    static final class Transfer {
+        private static final int BUFFER_SIZE = 256 * 1024;
+        private static final ThreadLocal<ByteBuffer> BUFFERS =
+                ThreadLocal.withInitial(() -> ByteBuffer.allocate(BUFFER_SIZE));
+
+        interface Listener {
+            void progress(long written, long total);
+        }
+
+        interface Check {
+            void verify(Result result) throws IOException;
+        }
+
+        static final class Result {
+            final long bytes;
+            final long nanos;
+            final String sha256;
+
+            Result(long bytes, long nanos, String sha256) {
+                this.bytes = bytes;
+                this.nanos = nanos;
+                this.sha256 = sha256;
+            }
+
+            double bytesPerSecond() {
+                return nanos > 0 ? bytes * 1_000_000_000.0 / nanos : 0;
+            }
+
+            @Override
+            public String toString() {
+                return String.format("%,d bytes in %d ms (%.1f KB/s)",
+                        bytes, TimeUnit.NANOSECONDS.toMillis(nanos), bytesPerSecond() / 1024);
+            }
+        }
+
+        private Transfer() {
+        }
+
+        /**
+         * Downloads {@code in} to {@code target}. When a {@code check} is given the content is hashed
+         * in the same pass and the check runs before the rename; a failed check leaves the existing
+         * target untouched.
+         */
+        static Result toFile(InputStream in, File target, long total, Listener listener, Check check) throws IOException {
+            File parent = target.getAbsoluteFile().getParentFile();
+            if (parent != null) {
+                parent.mkdirs();
+            }
+
+            File temp = File.createTempFile("." + target.getName() + ".", ".tmp", parent);
+            try {
+                Result result;
+                try (FileChannel out = FileChannel.open(temp.toPath(), StandardOpenOption.WRITE)) {
+                    result = copy(in, out, 0, total, check != null ? newSha256() : null, listener);
+                    out.force(true);
+                }
+                if (check != null) {
+                    check.verify(result);
+                }
+                move(temp, target);
+                return result;
+            } finally {
+                temp.delete();
+            }
+        }
+
+        /**
+         * Writes {@code in} into a partial download, either appending after {@code existing} bytes or
+         * replacing its contents. The file stays under its {@code .part} name; callers {@link #commit}
+         * it once it is complete. A {@code digest} is first fed the bytes already on disk, so the
+         * result's SHA-256 is of the whole file.
+         */
+        static Result toPartFile(InputStream in, File partFile, boolean append, long existing, long total,
+                                 Listener listener, MessageDigest digest) throws IOException {
+            if (append && digest != null) {
+                hashExisting(partFile, existing, digest);
+            }
+            try (FileChannel out = FileChannel.open(partFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    append ? StandardOpenOption.APPEND : StandardOpenOption.TRUNCATE_EXISTING)) {
+                Result result = copy(in, out, append ? existing : 0, total, digest, listener);
+                out.force(true);
+                return result;
+            }
+        }
+
+        /**
+         * Flushes a finished file to disk and atomically renames it over {@code target}.
+         */
+        static void commit(File source, File target) throws IOException {
+            try (FileChannel channel = FileChannel.open(source.toPath(), StandardOpenOption.WRITE)) {
+                channel.force(true);
+            }
+            move(source, target);
+        }
+
+        private static void hashExisting(File file, long length, MessageDigest digest) throws IOException {
+            ByteBuffer buffer = BUFFERS.get();
+            try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+                long remaining = length;
+                while (remaining > 0) {
+                    buffer.clear().limit((int) Math.min(buffer.capacity(), remaining));
+                    int n = channel.read(buffer);
+                    if (n == -1) {
+                        throw new EOFException("Partial file " + file + " is shorter than " + length + " bytes");
+                    }
+                    digest.update(buffer.array(), 0, n);
+                    remaining -= n;
+                }
+            }
+        }
+
+        private static void move(File source, File target) throws IOException {
+            try {
+                Files.move(source.toPath(), target.toPath(), StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(source.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+
+        private static Result copy(InputStream in, FileChannel out, long offset, long total, MessageDigest digest,
+                                   Listener listener) throws IOException {
+            ByteBuffer buffer = BUFFERS.get();
+            byte[] array = buffer.array();
+            long start = System.nanoTime();
+            long written = 0;
+            boolean eof = false;
+
+            while (!eof) {
+                // Fill the whole buffer before touching the disk
+                int filled = 0;
+                while (filled < array.length) {
+                    int n = in.read(array, filled, array.length - filled);
+                    if (n == -1) {
+                        eof = true;
+                        break;
+                    }
+                    filled += n;
+                }
+
+                buffer.clear().limit(filled);
+                if (digest != null) {
+                    digest.update(array, 0, filled);
+                }
+                while (buffer.hasRemaining()) {
+                    out.write(buffer);
+                }
+                written += filled;
+
+                if (listener != null && total > 0 && filled > 0) {
+                    listener.progress(offset + written, total);
+                }
+            }
+
+            return new Result(written, System.nanoTime() - start, digest != null ? toHex(digest.digest()) : null);
+        }
+    }
+
+    /**
+     * Binary diff between two releases of a file, applied as it streams in. The format is a header
+     * naming the base and result by SHA-256, followed by instructions that either copy a range of
+     * the local base file or insert literal bytes carried in the patch:
+     * <pre>
+     * "VKDP" u8 version
+     * base sha256 (32 bytes), target sha256 (32 bytes), target length (u64)
+     * { 0x01 offset(u64) length(u32)  -- copy from base
+     * | 0x02 length(u32) bytes        -- insert literal }*
+     * 0x00                             -- end
+     * </pre>
+     * The header is checked against the local file before any output is written; a patch for a
+     * different base is rejected so the caller can fall back to a full download.
+     */
+    static final class DeltaPatch {
+        private static final int MAGIC = 0x564B4450; // "VKDP"
+        private static final int VERSION = 1;
+        private static final int OP_END = 0x00;
+        private static final int OP_COPY = 0x01;
+        private static final int OP_INSERT = 0x02;
+
+        static final class BaseMismatchException extends IOException {
+            BaseMismatchException(String message) {
+                super(message);
+            }
+        }
+
+        private DeltaPatch() {
+        }
+
+        static Transfer.Result download(URL patchUrl, File base, String baseSha256, File target) throws IOException {
+            HttpURLConnection connection = openConnection(patchUrl);
+            try {
+                int status = connection.getResponseCode();
+                if (status == HttpURLConnection.HTTP_NOT_FOUND) {
+                    throw new FileNotFoundException("No patch published at " + patchUrl);
+                } else if (status != HttpURLConnection.HTTP_OK) {
+                    throw new IOException("Unexpected HTTP " + status + " for " + patchUrl);
+                }
+
+                try (InputStream in = new BufferedInputStream(connection.getInputStream())) {
+                    return apply(in, base, baseSha256, target);
+                }
+            } finally {
+                connection.disconnect();
+            }
+        }
+
+        static Transfer.Result apply(InputStream patchStream, File base, String baseSha256, File target) throws IOException {
+            DataInputStream patch = new DataInputStream(patchStream);
+            if (patch.readInt() != MAGIC || patch.readUnsignedByte() != VERSION) {
+                throw new IOException("Not a supported delta patch");
+            }
+
+            byte[] hash = new byte[32];
+            patch.readFully(hash);
+            String expectedBase = toHex(hash);
+            patch.readFully(hash);
+            String expectedTarget = toHex(hash);
+            long targetLength = patch.readLong();
+
+            if (!expectedBase.equals(baseSha256)) {
+                throw new BaseMismatchException("Patch base " + expectedBase + " does not match local " + baseSha256);
+            }
+
+            // Written through Transfer, so a crash mid-patch never leaves a torn file under the target name
+            try (FileChannel baseChannel = FileChannel.open(base.toPath(), StandardOpenOption.READ)) {
+                return Transfer.toFile(new PatchedStream(patch, baseChannel, targetLength), target, targetLength, null,
+                        result -> {
+                            if (result.bytes != targetLength || !expectedTarget.equals(result.sha256)) {
+                                throw new IOException("Patched file does not match the release checksum");
+                            }
+                        });
+            }
+        }
+
+        /**
+         * The patched file as a stream, produced one instruction at a time from the patch and the base.
+         */
+        private static final class PatchedStream extends InputStream {
+            private final DataInputStream patch;
+            private final FileChannel base;
+            private final long baseLength;
+            private final long targetLength;
+            private long produced;
+            private long remaining; // Bytes left in the current instruction
+            private long copyOffset;
+            private boolean copying;
+            private boolean ended;
+
+            PatchedStream(DataInputStream patch, FileChannel base, long targetLength) throws IOException {
+                this.patch = patch;
+                this.base = base;
+                this.baseLength = base.size();
+                this.targetLength = targetLength;
+            }
+
+            @Override
+            public int read() throws IOException {
+                byte[] one = new byte[1];
+                return read(one, 0, 1) == -1 ? -1 : one[0] & 0xFF;
+            }
+
+            @Override
+            public int read(byte[] buffer, int offset, int length) throws IOException {
+                if (length == 0) {
+                    return 0;
+                }
+                while (remaining == 0) {
+                    if (ended) {
+                        return -1;
+                    }
+                    nextInstruction();
+                }
+
+                int n = (int) Math.min(length, remaining);
+                if (copying) {
+                    n = base.read(ByteBuffer.wrap(buffer, offset, n), copyOffset);
+                    if (n <= 0) {
+                        throw new EOFException("Base file truncated while patching");
+                    }
+                    copyOffset += n;
+                } else {
+                    patch.readFully(buffer, offset, n);
+                }
+                remaining -= n;
+                produced += n;
+                if (produced > targetLength) {
+                    throw new IOException("Patch output exceeds the declared length");
+                }
+                return n;
+            }
+
+            private void nextInstruction() throws IOException {
+                int op = patch.readUnsignedByte();
+                if (op == OP_END) {
+                    ended = true;
+                } else if (op == OP_COPY) {
+                    long offset = patch.readLong();
+                    long length = patch.readInt() & 0xFFFFFFFFL;
+                    if (offset < 0 || offset + length > baseLength) {
+                        throw new IOException("Patch copies outside the base file");
+                    }
+                    copying = true;
+                    copyOffset = offset;
+                    remaining = length;
+                } else if (op == OP_INSERT) {
+                    copying = false;
+                    remaining = patch.readInt() & 0xFFFFFFFFL;
+                } else {
+                    throw new IOException("Unknown patch instruction " + op);
+                }
+            }
+        }
+    }
+
+    /**
+     * Fetches one large file over several connections at once. The file is split into fixed-size
+     * byte ranges that connections take from a shared queue and write in place into a file
+     * preallocated to the final size, so segments can land in any order. Finished segments are
+     * recorded in a {@code .properties} file next to it once they are on disk, so a later attempt,
+     * in this launch or the next, only fetches the ones still missing.
+     * <p>
+     * All segments must come from the same build of the file. When its SHA-256 is known, connections
+     * spread over the healthy mirrors and the assembled file is checked against the hash. Otherwise
+     * every segment comes from the mirror that answered first, is requested with {@code If-Range},
+     * and must carry the same validator (a strong ETag, or Last-Modified) as the first response. A
+     * server that offers no ranges or no validator, or a file that changes on the server, raises a
+     * {@link NotSegmentableException} so the caller can fall back to a single connection.
+     * <p>
+     * The number of connections is found by measurement. It starts at two; after a warm-up sample,
+     * one more is tried and kept while it raises the combined throughput by a useful margin, never
+     * beyond the free connection permits for the hosts involved.
+     */
+    static final class SegmentedDownload {
+        static final long MIN_SIZE = 8L * 1024 * 1024;
+        private static final long SEGMENT_SIZE = 2L * 1024 * 1024;
+        private static final int INITIAL_CONNECTIONS = 2;
+        private static final int MAX_CONNECTIONS = 8;
+        private static final long SAMPLE_MS = 1000;
+        private static final double MIN_GAIN = 1.1;
+        private static final ExecutorService CONNECTIONS = Executors.newCachedThreadPool(r -> {
+            Thread thread = new Thread(r, "launcher-segment");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        static final class NotSegmentableException extends IOException {
+            NotSegmentableException(String message) {
+                super(message);
+            }
+        }
+
+        private final String url;
+        private final File file;
+        private final File metaFile;
+        private final String expectedSha256;
+        private final DownloadEngine engine;
+        private final Deque<long[]> segments = new ConcurrentLinkedDeque<>();
+        private final Set<HttpURLConnection> open = ConcurrentHashMap.newKeySet();
+        private final BitSet done = new BitSet();
+        private final AtomicLong written = new AtomicLong();
+        private final AtomicInteger active = new AtomicInteger();
+        private volatile int limit = INITIAL_CONNECTIONS;
+        private volatile boolean failed;
+        private volatile boolean aborted;
+        private volatile long total = -1;
+        private volatile String validator;
+        private volatile Mirrors.Mirror pinned;
+        private long resumed;
+        private FileChannel channel;
+        private Transfer.Listener listener;
+
+        SegmentedDownload(String url, File file, String expectedSha256, DownloadEngine engine) {
+            this.url = url;
+            this.file = file;
+            this.metaFile = new File(file.getPath() + ".properties");
+            this.expectedSha256 = expectedSha256;
+            this.engine = engine;
+        }
+
+        /**
+         * Completes the file. The result covers the bytes fetched by this call; its SHA-256 is that
+         * of the whole file when an expected hash was given. After a {@link NotSegmentableException}
+         * the file and its progress are deleted; after any other failure they are kept for the next
+         * attempt.
+         */
+        Transfer.Result download(Transfer.Listener listener) throws IOException {
+            this.listener = listener;
+            long start = System.nanoTime();
+            File parent = file.getAbsoluteFile().getParentFile();
+            if (parent != null) {
+                parent.mkdirs();
+            }
+
+            boolean fresh = !loadMeta();
+            try (RandomAccessFile out = new RandomAccessFile(file, "rw")) {
+                channel = out.getChannel();
+
+                // The first pending segment doubles as the probe for the size, range support and
+                // validator, and pins the mirror when segments are tied together by validator
+                long[] probe;
+                if (fresh) {
+                    out.setLength(0);
+                    probe = new long[]{0, SEGMENT_SIZE, 0};
+                    fetch(probe, 0);
+                    out.setLength(total);
+                    for (long position = SEGMENT_SIZE; position < total; position += SEGMENT_SIZE) {
+                        segments.add(new long[]{position, Math.min(position + SEGMENT_SIZE, total), position / SEGMENT_SIZE});
+                    }
+                } else {
+                    for (int index = done.nextClearBit(0); (long) index * SEGMENT_SIZE < total; index = done.nextClearBit(index + 1)) {
+                        long position = (long) index * SEGMENT_SIZE;
+                        segments.add(new long[]{position, Math.min(position + SEGMENT_SIZE, total), index});
+                    }
+                    log.info("Resuming segmented download of {} with {} of {} bytes present", url, resumed, total);
+                    probe = segments.poll();
+                    if (probe != null) {
+                        fetch(probe, 0);
+                    }
+                }
+                if (probe != null) {
+                    segmentDone(probe);
+                }
+
+                runConnections();
+                channel.force(true);
+            } catch (NotSegmentableException e) {
+                clear();
+                throw e;
+            }
+
+            String sha256 = null;
+            if (expectedSha256 != null) {
+                sha256 = InstallIndex.sha256Of(file);
+                if (!expectedSha256.equals(sha256)) {
+                    clear();
+                    throw new NotSegmentableException("Segments of " + url + " don't add up to the published file");
+                }
+            }
+            metaFile.delete();
+
+            Transfer.Result result = new Transfer.Result(written.get(), System.nanoTime() - start, sha256);
+            log.info("Segmented download of {}: {} over up to {} connections", url, result, limit);
+            return result;
+        }
+
+        void clear() {
+            file.delete();
+            metaFile.delete();
+        }
+
+        private void runConnections() throws IOException {
+            CompletionService<Void> completion = new ExecutorCompletionService<>(CONNECTIONS);
+            limit = Math.max(1, Math.min(INITIAL_CONNECTIONS, capacity()));
+            int running = 0;
+            while (running < Math.min(limit, segments.size())) {
+                startConnection(completion, running++);
+            }
+
+            IOException failure = null;
+            boolean interrupted = false;
+            boolean growing = true;
+            boolean trial = false;
+            int samples = 0;
+            double baseline = 0;
+            long lastBytes = written.get();
+            long nextSample = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(SAMPLE_MS);
+            while (running > 0) {
+                Future<Void> finished;
+                try {
+                    finished = completion.poll(Math.max(0, nextSample - System.nanoTime()), TimeUnit.NANOSECONDS);
+                } catch (InterruptedException e) {
+                    // Stop the connections and wait for them, so none writes to the channel once it closes
+                    interrupted = true;
+                    abort();
+                    continue;
+                }
+
+                if (finished != null) {
+                    running--;
+                    try {
+                        finished.get();
+                    } catch (InterruptedException e) {
+                        interrupted = true; // Can't happen for a finished future
+                    } catch (ExecutionException e) {
+                        failed = true;
+                        IOException cause = e.getCause() instanceof IOException
+                                ? (IOException) e.getCause()
+                                : new IOException(e.getCause());
+                        if (failure == null) {
+                            failure = cause;
+                        } else {
+                            failure.addSuppressed(cause);
+                        }
+                    }
+                    continue;
+                }
+
+                long bytes = written.get();
+                double rate = (bytes - lastBytes) * 1000.0 / SAMPLE_MS;
+                lastBytes = bytes;
+                nextSample = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(SAMPLE_MS);
+
+                // The first sample covers connection setup and TCP slow start, so it says nothing
+                if (++samples == 1 || !growing || failed || segments.isEmpty()) {
+                    continue;
+                }
+
+                // Hill-climb on combined throughput: keep a trial connection only if it paid for itself
+                if (trial) {
+                    trial = false;
+                    if (rate < baseline * MIN_GAIN) {
+                        limit--;
+                        growing = false;
+                        continue;
+                    }
+                }
+                baseline = rate;
+                if (limit < MAX_CONNECTIONS && capacity() > 0) {
+                    limit++;
+                    trial = true;
+                    startConnection(completion, running++);
+                } else {
+                    growing = false;
+                }
+            }
+
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted during segmented download of " + url);
+            }
+            if (failure != null) {
+                throw failure;
+            }
+        }
+
+        /**
+         * Connection permits currently free on the hosts this download may use. Connections beyond
+         * that would only queue on the permits and spoil the throughput measurement.
+         */
+        private int capacity() {
+            Mirrors.Mirror only = pinned;
+            Set<String> hosts = new TreeSet<>();
+            for (Mirrors.Mirror mirror : only != null ? List.of(only) : MIRRORS.ranked()) {
+                if (mirror == only || mirror.isHealthy()) {
+                    try {
+                        hosts.add(mirror.resolve(url).getHost());
+                    } catch (MalformedURLException e) {
+                        log.debug("Skipping mirror {} for {}", mirror, url, e);
+                    }
+                }
+            }
+
+            int free = 0;
+            for (String host : hosts) {
+                free += engine.availablePermits(host);
+            }
+            return free;
+        }
+
+        private void abort() {
+            failed = true;
+            aborted = true;
+            for (HttpURLConnection connection : open) {
+                connection.disconnect();
+            }
+        }
+
+        private void startConnection(CompletionService<Void> completion, int index) {
+            active.incrementAndGet();
+            completion.submit(() -> {
+                while (true) {
+                    int connections = active.get();
+                    if (connections > limit) {
+                        if (active.compareAndSet(connections, connections - 1)) {
+                            return null;
+                        }
+                        continue;
+                    }
+                    long[] segment = failed ? null : segments.poll();
+                    if (segment == null) {
+                        active.decrementAndGet();
+                        return null;
+                    }
+                    try {
+                        fetch(segment, index);
+                        segmentDone(segment);
+                    } catch (IOException | RuntimeException e) {
+                        active.decrementAndGet();
+                        throw e;
+                    }
+                }
+            });
+        }
+
+        /**
+         * Fetches {@code segment} ({start, end exclusive, index}), advancing its start as bytes land
+         * so a retry on another mirror continues where the failed one stopped.
+         */
+        private void fetch(long[] segment, int preferred) throws IOException {
+            Mirrors.Mirror mirror = pinned;
+            if (mirror != null) {
+                try {
+                    fetchFrom(mirror, mirror.resolve(url), segment);
+                } catch (IOException e) {
+                    if (!isInterrupt(e) && !(e instanceof NotSegmentableException)) {
+                        mirror.recordFailure();
+                    }
+                    throw e;
+                }
+                return;
+            }
+
+            MIRRORS.withFailover(url, preferred, (candidate, source) -> {
+                fetchFrom(candidate, source, segment);
+                if (expectedSha256 == null) {
+                    pinned = candidate; // Validators only hold within one mirror
+                }
+                return null;
+            });
+        }
+
+        private void fetchFrom(Mirrors.Mirror mirror, URL source, long[] segment) throws IOException {
+            engine.withHostPermit(source, () -> {
+                long start = System.nanoTime();
+                long before = segment[0];
+                HttpURLConnection connection = openConnection(source);
+                connection.setRequestProperty("Range", "bytes=" + segment[0] + "-" + (segment[1] - 1));
+                String expectedValidator = validator;
+                if (expectedSha256 == null && expectedValidator != null) {
+                    connection.setRequestProperty("If-Range", expectedValidator);
+                }
+                open.add(connection);
                 try {
-                    // Download new JAR
-                    URL url = new URL("https://valkarin.net/download/valkarin.jar");
-                    HttpURLConnection connection = (HttpURLConnection) url.openConnection();
-                    int fileSize = connection.getContentLength();
-
-                    // Create temp file
-                    File tempFile = File.createTempFile("valkarin_new", ".jar");
-                    tempFile.deleteOnExit();
-
-                    try (InputStream in = new BufferedInputStream(connection.getInputStream());
-                         FileOutputStream out = new FileOutputStream(tempFile)) {
-
-                        byte[] buffer = new byte[1024];
-                        int bytesRead;
-                        int totalBytesRead = 0;
-
-                        while ((bytesRead = in.read(buffer)) != -1) {
-                            out.write(buffer, 0, bytesRead);
-                            totalBytesRead += bytesRead;
-                            // Update progress
-                            publish((int) ((totalBytesRead * 100.0) / fileSize));
+                    if (aborted) {
+                        throw new InterruptedIOException("Segmented download of " + url + " was cancelled");
+                    }
+                    int status = connection.getResponseCode();
+                    if (status == HttpURLConnection.HTTP_OK) {
+                        throw new NotSegmentableException(expectedValidator != null
+                                ? url + " changed on the server"
+                                : source + " doesn't serve byte ranges");
+                    } else if (status == HttpURLConnection.HTTP_NOT_FOUND) {
+                        throw new FileNotFoundException("File not found on server: " + source);
+                    } else if (status != HttpURLConnection.HTTP_PARTIAL) {
+                        throw new IOException("Unexpected HTTP " + status + " for " + source);
+                    }
+                    checkContentRange(connection, segment[0]);
+                    if (expectedSha256 == null) {
+                        checkValidator(connection);
+                    }
+                    segment[1] = Math.min(segment[1], total);
+
+                    try (InputStream in = connection.getInputStream()) {
+                        copy(in, segment);
+                    }
+                    if (segment[0] != segment[1]) {
+                        throw new EOFException("Segment of " + source + " ended early at " + segment[0]);
+                    }
+                    return null;
+                } catch (IOException e) {
+                    if (aborted && !(e instanceof InterruptedIOException)) {
+                        // Not the mirror's fault, so it mustn't count as a failure against it
+                        InterruptedIOException cancelled = new InterruptedIOException("Segmented download of " + url + " was cancelled");
+                        cancelled.initCause(e);
+                        throw cancelled;
+                    }
+                    throw e;
+                } finally {
+                    open.remove(connection);
+                    connection.disconnect();
+                    mirror.recordThroughput(segment[0] - before, System.nanoTime() - start);
+                }
+            });
+        }
+
+        private void checkContentRange(HttpURLConnection connection, long expectedStart) throws IOException {
+            // Content-Range: bytes 1000-4999/5000
+            String range = connection.getHeaderField("Content-Range");
+            long start;
+            long length;
+            try {
+                start = Long.parseLong(range.substring(6, range.indexOf('-')).trim());
+                length = Long.parseLong(range.substring(range.indexOf('/') + 1).trim());
+            } catch (RuntimeException e) {
+                throw new IOException("Unusable Content-Range " + range + " for " + url);
+            }
+            if (start != expectedStart) {
+                throw new IOException("Server answered a range we didn't ask for: " + range);
+            }
+            synchronized (this) {
+                if (total < 0) {
+                    total = length;
+                } else if (total != length) {
+                    throw new NotSegmentableException("Mirrors disagree on the size of " + url + ": " + total + " vs " + length);
+                }
+            }
+        }
+
+        private void checkValidator(HttpURLConnection connection) throws IOException {
+            String etag = connection.getHeaderField("ETag");
+            String current = etag != null && !etag.startsWith("W/") ? etag : connection.getHeaderField("Last-Modified");
+            if (current == null) {
+                throw new NotSegmentableException(url + " has no validator to tie its segments together");
+            }
+            synchronized (this) {
+                if (validator == null) {
+                    validator = current;
+                } else if (!validator.equals(current)) {
+                    throw new NotSegmentableException(url + " changed on the server");
+                }
+            }
+        }
+
+        private void copy(InputStream in, long[] segment) throws IOException {
+            byte[] array = new byte[64 * 1024];
+            ByteBuffer buffer = ByteBuffer.wrap(array);
+            while (segment[0] < segment[1]) {
+                int n = in.read(array, 0, (int) Math.min(array.length, segment[1] - segment[0]));
+                if (n == -1) {
+                    break;
+                }
+                buffer.clear().limit(n);
+                long position = segment[0];
+                while (buffer.hasRemaining()) {
+                    position += channel.write(buffer, position);
+                }
+                segment[0] = position;
+
+                long fetched = written.addAndGet(n);
+                if (listener != null && total > 0) {
+                    listener.progress(resumed + fetched, total);
+                }
+            }
+        }
+
+        /**
+         * Records a finished segment. The data is flushed first, so a recorded segment is never
+         * missing from disk after a crash.
+         */
+        private synchronized void segmentDone(long[] segment) throws IOException {
+            channel.force(false);
+            done.set((int) segment[2]);
+
+            Properties meta = new Properties();
+            meta.setProperty("length", Long.toString(total));
+            if (expectedSha256 != null) {
+                meta.setProperty("sha256", expectedSha256);
+            } else {
+                meta.setProperty("validator", validator);
+                meta.setProperty("mirror", pinned.base);
+            }
+            StringBuilder indexes = new StringBuilder();
+            for (int index = done.nextSetBit(0); index >= 0; index = done.nextSetBit(index + 1)) {
+                indexes.append(indexes.length() > 0 ? "," : "").append(index);
+            }
+            meta.setProperty("done", indexes.toString());
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            meta.store(out, url);
+            byte[] bytes = out.toByteArray();
+            Transfer.toFile(new ByteArrayInputStream(bytes), metaFile, bytes.length, null, null);
+        }
+
+        /**
+         * Picks up the progress of an earlier attempt, if it belongs to the same file. Returns
+         * whether there is anything to resume.
+         */
+        private boolean loadMeta() {
+            Properties meta = new Properties();
+            if (metaFile.isFile()) {
+                try (InputStream in = new FileInputStream(metaFile)) {
+                    meta.load(in);
+                } catch (IOException e) {
+                    log.warn("Ignoring unreadable segment progress {}", metaFile, e);
+                    meta.clear();
+                }
+            }
+
+            try {
+                long length = Long.parseLong(meta.getProperty("length", "-1"));
+                // A validator only holds on the mirror that issued it
+                Mirrors.Mirror mirror = expectedSha256 == null ? MIRRORS.find(meta.getProperty("mirror", "")) : null;
+                boolean sameFile = expectedSha256 != null
+                        ? expectedSha256.equals(meta.getProperty("sha256"))
+                        : meta.getProperty("validator") != null && mirror != null;
+                if (sameFile && length > 0 && file.isFile() && file.length() == length) {
+                    for (String index : meta.getProperty("done", "").split(",")) {
+                        if (!index.isEmpty()) {
+                            done.set(Integer.parseInt(index.trim()));
+                            resumed += Math.min(SEGMENT_SIZE, length - Long.parseLong(index.trim()) * SEGMENT_SIZE);
                         }
                     }
+                    total = length;
+                    if (mirror != null) {
+                        validator = meta.getProperty("validator");
+                        pinned = mirror;
+                    }
+                    return true;
+                }
+            } catch (NumberFormatException e) {
+                log.warn("Ignoring corrupt segment progress {}", metaFile, e);
+            }
+
+            done.clear();
+            resumed = 0;
+            clear();
+            return false;
+        }
+    }
+
+    /**
+     * Downloads a file into a {@code .part} file that survives failed attempts. The server's
+     * validator (a strong ETag, or Last-Modified) is stored alongside it, so the next attempt sends
+     * a {@code Range} request guarded by {@code If-Range} and only fetches the missing bytes. If the
+     * file changed on the server in the meantime it answers with the full body and we start over.
+     * <p>
+     * When the expected SHA-256 is known up front the part file is tied to that instead, and the
+     * download hashes the whole file as it completes. Validators differ between mirrors, so this is
+     * what lets another mirror continue a part file.
+     */
+    static final class ResumableDownload {
+        private final URL source;
+        private final File partFile;
+        private final File metaFile;
+        private final String expectedSha256;
+
+        ResumableDownload(URL source, File partFile) {
+            this(source, partFile, null);
+        }
+
+        ResumableDownload(URL source, File partFile, String expectedSha256) {
+            this.source = source;
+            this.partFile = partFile;
+            this.metaFile = new File(partFile.getPath() + ".properties");
+            this.expectedSha256 = expectedSha256;
+        }
+
+        /**
+         * Completes the part file. The result covers only the bytes fetched by this call, but its
+         * SHA-256, present when an expected hash was given, is of the whole file.
+         */
+        Transfer.Result download(Transfer.Listener listener) throws IOException {
+            Properties meta = loadMeta();
+            String validator = meta.getProperty("validator");
+            boolean resumable = expectedSha256 != null
+                    ? expectedSha256.equals(meta.getProperty("sha256"))
+                    : validator != null;
+            long existing = partFile.isFile() && resumable ? partFile.length() : 0;
+
+            HttpURLConnection connection = openConnection(source);
+            if (existing > 0) {
+                connection.setRequestProperty("Range", "bytes=" + existing + "-");
+                if (expectedSha256 == null) {
+                    connection.setRequestProperty("If-Range", validator);
+                }
+            }
+
+            try {
+                int status = connection.getResponseCode();
+                boolean append;
+                if (status == HttpURLConnection.HTTP_PARTIAL && existing > 0
+                        && contentRangeStart(connection) == existing) {
+                    append = true;
+                    log.info("Resuming update download at {} bytes", existing);
+                } else if (status == HttpURLConnection.HTTP_OK) {
+                    append = false;
+                    existing = 0;
+                } else if (status == 416 && existing > 0) {
+                    // Our partial file doesn't fit the current resource; start fresh next time
+                    clear();
+                    throw new IOException("Partial download no longer matches the server copy");
+                } else if (status == HttpURLConnection.HTTP_NOT_FOUND) {
+                    throw new FileNotFoundException("File not found on server: " + source);
+                } else {
+                    if (status == HttpURLConnection.HTTP_PARTIAL) {
+                        clear(); // Server answered a range we didn't ask for
+                    }
+                    throw new IOException("Unexpected HTTP " + status + " for " + source);
+                }
 
-                    // Get current JAR location
-                    String currentPath = LoginScreen.class.getProtectionDomain()
-                            .getCodeSource().getLocation().toURI().getPath();
-                    File currentJar = new File(currentPath);
+                long remaining = connection.getContentLengthLong();
+                long total = remaining >= 0 ? existing + remaining : -1;
+                saveMeta(connection, total);
 
-                    // Create backup of current JAR
-                    File backupFile = new File(currentJar.getParent(), "valkarin.jar.backup");
-                    if (backupFile.exists()) backupFile.delete();
-                    Files.copy(currentJar.toPath(), backupFile.toPath());
+                Transfer.Result result;
+                try (InputStream in = connection.getInputStream()) {
+                    result = Transfer.toPartFile(in, partFile, append, existing, total, listener,
+                            expectedSha256 != null ? newSha256() : null);
+                    log.info("Update download: {}", result);
+                }
 
-                    // Replace current JAR with new version
-                    Files.move(tempFile.toPath(), currentJar.toPath(),
-                            StandardCopyOption.REPLACE_EXISTING);
+                long written = existing + result.bytes;
+                if (total >= 0 && written != total) {
+                    throw new IOException("Download ended early at " + written + " of " + total + " bytes");
+                }
+                metaFile.delete();
+                return result;
+            } finally {
+                connection.disconnect();
+            }
+        }
 
-                    return null;
-                } catch (Exception e) {
-                    log.error("Failed to update client", e);
-                    throw e;
+        void clear() {
+            partFile.delete();
+            metaFile.delete();
+        }
+
+        private static long contentRangeStart(HttpURLConnection connection) {
+            // Content-Range: bytes 1000-4999/5000
+            String range = connection.getHeaderField("Content-Range");
+            if (range == null || !range.startsWith("bytes ")) {
+                return -1;
+            }
+            try {
+                return Long.parseLong(range.substring(6, range.indexOf('-')).trim());
+            } catch (RuntimeException e) {
+                return -1;
+            }
+        }
+
+        private Properties loadMeta() {
+            Properties meta = new Properties();
+            if (metaFile.isFile()) {
+                try (InputStream in = new FileInputStream(metaFile)) {
+                    meta.load(in);
+                } catch (IOException e) {
+                    log.warn("Ignoring unreadable download metadata {}", metaFile, e);
                 }
             }
-        };
+            return meta;
+        }
+
+        private void saveMeta(HttpURLConnection connection, long total) throws IOException {
+            String etag = connection.getHeaderField("ETag");
+            String validator = etag != null && !etag.startsWith("W/")
+                    ? etag
+                    : connection.getHeaderField("Last-Modified");
+
+            Properties meta = new Properties();
+            if (validator != null) {
+                meta.setProperty("validator", validator);
+            }
+            if (expectedSha256 != null) {
+                meta.setProperty("sha256", expectedSha256);
+            }
+            meta.setProperty("length", Long.toString(total));
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            meta.store(out, source.toString());
+            byte[] bytes = out.toByteArray();
+            Transfer.toFile(new ByteArrayInputStream(bytes), metaFile, bytes.length, null, null);
+        }
     }
 
     public LoginScreen(Runnable onPlayCallback) {
+        this(onPlayCallback, null);
+    }
+
+    private LoginScreen(Runnable onPlayCallback, Prefetch<?> prefetch) {
         this.onPlayCallback = onPlayCallback;
-        BufferedImage logo = ImageUtil.loadImageResource(LoginScreen.class, "/boomscape.png");
+        this.prefetch = prefetch;
+
+        // Only the shell is built here: the background, window controls and the play/update
+        // column. Everything else is filled in once the first frame is on screen.
 
         // Basic window setup
         setTitle("Valkarin");
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
         setUndecorated(true);
         setSize(WIDTH, HEIGHT);
-        setIconImage(logo);
         setBackground(new Color(0, 0, 0, 0));
 
         // Restore window position
@@ -414,30 +4589,10 @@ public class LoginScreen extends JFrame {
             setLocationRelativeTo(null);
         }
 
-        // Initialize particles
-        for (int i = 0; i < 50; i++) {
-            particles.add(new Particle());
-        }
-
         // Main panel setup
         JPanel mainPanel = createMainPanel();
         setContentPane(mainPanel);
-
-        // Start particle animation
-        particleTimer = new Timer(16, e -> {
-            particles.forEach(Particle::update);
-            mainPanel.repaint();
-        });
-        particleTimer.start();
-
-        // Add panels
-        JPanel leftPanel = createLeftPanel(logo);
-        mainPanel.add(leftPanel);
-        leftPanel.setBounds(PAD, PAD, 400, HEIGHT - (PAD * 2));
-
-        JPanel rightPanel = createRightPanel();
-        mainPanel.add(rightPanel);
-        rightPanel.setBounds(420 + PAD, PAD, WIDTH - 440 - PAD, HEIGHT - (PAD * 2));
+        animationClock.attach(this);
 
         // Add window controls
         JPanel windowControls = new JPanel(new FlowLayout(FlowLayout.RIGHT, 5, 0));
@@ -447,6 +4602,10 @@ public class LoginScreen extends JFrame {
         mainPanel.add(windowControls);
         windowControls.setBounds(WIDTH - 80, 10, 70, 30);
 
+        JPanel leftPanel = createLeftPanel();
+        mainPanel.add(leftPanel);
+        leftPanel.setBounds(PAD, PAD, 400, HEIGHT - (PAD * 2));
+
         // Add window drag support with position saving
         setupWindowDrag();
 
@@ -454,35 +4613,160 @@ public class LoginScreen extends JFrame {
         setupKeyboardShortcuts();
 
         getRootPane().putClientProperty("Window.shadow", Boolean.TRUE);
+
+        // Show background update check results as they arrive
+        UPDATE_SERVICE.addListener(updateListener);
+
+        // Cached backgrounds and effects are redrawn after a look and feel change
+        UIManager.addPropertyChangeListener(themeListener);
+
+        // Warm the client up while the user is looking at the launcher
+        if (prefetch != null) {
+            addWindowListener(new WindowAdapter() {
+                @Override
+                public void windowOpened(WindowEvent e) {
+                    prefetch.start();
+                }
+            });
+        }
+
+        loadLogo(leftPanel);
+    }
+
+    private void onFirstFrame() {
+        long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - createdAt);
+        log.info("Time to first frame: {} ms", millis);
+        DIAGNOSTICS.gauge("timeToFirstFrameMillis", millis);
+
+        // Queued rather than run here so the first frame reaches the screen before the rest is built
+        SwingUtilities.invokeLater(this::completeConstruction);
+    }
+
+    /**
+     * Second construction stage, run after the first frame has been painted: the patch notes and
+     * navigation panel, and the particle effects.
+     */
+    private void completeConstruction() {
+        if (!isDisplayable()) {
+            return; // Disposed before it got this far
+        }
+        JPanel mainPanel = (JPanel) getContentPane();
+
+        JPanel rightPanel = createRightPanel();
+        mainPanel.add(rightPanel);
+        rightPanel.setBounds(420 + PAD, PAD, WIDTH - 440 - PAD, HEIGHT - (PAD * 2));
+
+        if (Boolean.getBoolean("valkarin.particles.measure")) {
+            log.info("Particle frame allocations: {} bytes/frame for {} particles",
+                    new ParticleField(particles.size()).measureAllocationsPerFrame(1000), particles.size());
+        }
+
+        // Particles go on their own layer behind everything else
+        JComponent particleLayer = createParticleLayer();
+        mainPanel.add(particleLayer);
+        particleLayer.setBounds(0, 0, WIDTH, HEIGHT);
+
+        // Start particle animation
+        particleAnimation = now -> {
+            renderQuality.endFrame();
+            particleDirtyRegion.clear();
+            particles.update(particleDirtyRegion);
+
+            // Repaint only where particles were and are now, rather than the whole window
+            for (int i = 0; i < particleDirtyRegion.size(); i++) {
+                animationClock.repaint(mainPanel, particleDirtyRegion.get(i));
+            }
+            return true;
+        };
+        animationClock.start(particleAnimation);
+        if (renderQuality.getTier() != RenderQuality.Tier.FULL) {
+            onRenderQualityChanged(renderQuality.getTier()); // Pinned on the command line
+        }
+
+        mainPanel.revalidate();
+        mainPanel.repaint();
+
+        // Catch files damaged since the last launch; only changed files are read
+        verifyInstallation(false);
+    }
+
+    /**
+     * Loads the logo through the {@link AssetPipeline}, then adds it and the quote beneath it.
+     */
+    private void loadLogo(JPanel leftPanel) {
+        new SwingWorker<BaseMultiResolutionImage, Void>() {
+            @Override
+            protected BaseMultiResolutionImage doInBackground() throws IOException {
+                return AssetPipeline.load("/boomscape.png", 200);
+            }
+
+            @Override
+            protected void done() {
+                if (!isDisplayable()) {
+                    return; // Disposed while loading
+                }
+                BaseMultiResolutionImage logo;
+                try {
+                    logo = get();
+                } catch (Exception e) {
+                    log.warn("Failed to load the logo", e);
+                    // The quote doesn't need the logo; show it where the logo and quote block would be centred
+                    addQuote(leftPanel, (HEIGHT - 250) / 2);
+                    return;
+                }
+                setIconImages(logo.getResolutionVariants());
+                addLogo(leftPanel, logo);
+            }
+        }.execute();
     }
 
     private JPanel createMainPanel() {
         JPanel mainPanel = new JPanel() {
-            @Override
-            protected void paintComponent(Graphics g) {
-                Graphics2D g2 = (Graphics2D) g.create();
-                g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            // The background never changes at a given size, so it is drawn once and blitted
+            // for each dirty region afterwards
+            private final RenderCache background = new RenderCache((g2, width, height) -> {
+                renderQuality.applyTo(g2);
 
                 // Paint gradient background
                 GradientPaint gradient = new GradientPaint(
                         0, 0, backgroundColor,
-                        0, getHeight(), backgroundColor.darker()
+                        0, height, backgroundColor.darker()
                 );
                 g2.setPaint(gradient);
-                g2.fill(new RoundRectangle2D.Float(0, 0, getWidth(), getHeight(), CORNER_RADIUS, CORNER_RADIUS));
-
-                // Draw particles
-                for (Particle p : particles) {
-                    g2.setColor(new Color(1f, 1f, 1f, p.alpha));
-                    g2.fill(new RoundRectangle2D.Float(p.x, p.y, p.size, p.size, 2, 2));
-                }
+                g2.fill(new RoundRectangle2D.Float(0, 0, width, height, CORNER_RADIUS, CORNER_RADIUS));
 
                 // Add subtle border
                 g2.setStroke(new BasicStroke(1f));
                 g2.setColor(new Color(255, 255, 255, 30));
-                g2.draw(new RoundRectangle2D.Float(0, 0, getWidth() - 1, getHeight() - 1, CORNER_RADIUS, CORNER_RADIUS));
+                g2.draw(new RoundRectangle2D.Float(0, 0, width - 1, height - 1, CORNER_RADIUS, CORNER_RADIUS));
+            });
 
-                g2.dispose();
+            @Override
+            protected void paintComponent(Graphics g) {
+                background.draw(g, this, getWidth(), getHeight(), null);
+            }
+
+            private final Diagnostics.Histogram paintTime = DIAGNOSTICS.paintTime("mainPanel");
+            private boolean painted;
+
+            @Override
+            public void paint(Graphics g) {
+                long start = System.nanoTime();
+                super.paint(g);
+                long elapsed = System.nanoTime() - start;
+                renderQuality.recordPaint(elapsed);
+                paintTime.record(elapsed);
+
+                if (!painted) {
+                    painted = true;
+                    onFirstFrame();
+                }
+            }
+
+            @Override
+            public boolean isOptimizedDrawingEnabled() {
+                // The particle layer sits under the other children, so they overlap
+                return false;
             }
         };
         mainPanel.setLayout(null);
@@ -490,27 +4774,21 @@ public class LoginScreen extends JFrame {
         return mainPanel;
     }
 
-    private JPanel createLeftPanel(BufferedImage logo) {
+    private JComponent createParticleLayer() {
+        JComponent layer = new JComponent() {
+            @Override
+            protected void paintComponent(Graphics g) {
+                particles.paint((Graphics2D) g);
+            }
+        };
+        layer.setOpaque(false);
+        return layer;
+    }
+
+    private JPanel createLeftPanel() {
         JPanel panel = new JPanel(null);
         panel.setOpaque(false);
 
-        // Logo setup (existing code)
-        int logoWidth = 200;
-        int logoHeight = (int) ((double) logo.getHeight() / logo.getWidth() * logoWidth);
-        BufferedImage scaledImage = createHighQualityScaledImage(logo, logoWidth, logoHeight);
-
-        JLabel logoLabel = createGlowingLogoLabel(scaledImage);
-        panel.add(logoLabel);
-
-        int centerX = (400 - logoWidth) / 2;
-        int centerY = (HEIGHT - logoHeight - 250) / 2;
-        logoLabel.setBounds(centerX, centerY, logoWidth, logoHeight);
-
-        JLabel quoteLabel = createAnimatedQuoteLabel();
-        panel.add(quoteLabel);
-        int quoteY = centerY + logoHeight + 10;
-        quoteLabel.setBounds(PAD, quoteY, 360, 40);
-
         JButton playButton = createPlayButton();
         panel.add(playButton);
         playButton.setBounds(PAD, HEIGHT - 200, 360, 60);
@@ -526,7 +4804,7 @@ public class LoginScreen extends JFrame {
 
         // Add the Update Status Label
         updateStatusLabel = new JLabel("", SwingConstants.CENTER);
-        updateStatusLabel.setFont(new Font("SansSerif", Font.ITALIC, 12));
+        updateStatusLabel.setFont(Styles.STATUS_FONT);
         updateStatusLabel.setForeground(Color.WHITE);
         updateStatusLabel.setVisible(false); // Initially hidden
         panel.add(updateStatusLabel);
@@ -535,7 +4813,29 @@ public class LoginScreen extends JFrame {
         return panel;
     }
 
-    private BufferedImage createHighQualityScaledImage(BufferedImage original, int width, int height) {
+    private void addLogo(JPanel panel, BaseMultiResolutionImage scaledImage) {
+        int logoWidth = scaledImage.getWidth(null);
+        int logoHeight = scaledImage.getHeight(null);
+
+        JLabel logoLabel = createGlowingLogoLabel(scaledImage);
+        panel.add(logoLabel);
+
+        int centerX = (400 - logoWidth) / 2;
+        int centerY = (HEIGHT - logoHeight - 250) / 2;
+        logoLabel.setBounds(centerX, centerY, logoWidth, logoHeight);
+
+        addQuote(panel, centerY + logoHeight + 10);
+    }
+
+    private void addQuote(JPanel panel, int y) {
+        JLabel quoteLabel = createAnimatedQuoteLabel();
+        panel.add(quoteLabel);
+        quoteLabel.setBounds(PAD, y, 360, 40);
+
+        panel.repaint();
+    }
+
+    static BufferedImage createHighQualityScaledImage(BufferedImage original, int width, int height) {
         BufferedImage scaled = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
         Graphics2D g2d = scaled.createGraphics();
         g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
@@ -546,12 +4846,10 @@ public class LoginScreen extends JFrame {
         return scaled;
     }
 
-    private JLabel createGlowingLogoLabel(BufferedImage scaledImage) {
+    private JLabel createGlowingLogoLabel(Image scaledImage) {
         return new JLabel(new ImageIcon(scaledImage)) {
-            @Override
-            protected void paintComponent(Graphics g) {
-                Graphics2D g2 = (Graphics2D) g.create();
-                g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            private final RenderCache glow = new RenderCache((g2, width, height) -> {
+                renderQuality.applyTo(g2);
 
                 // Create a soft beam glow effect
                 int beamWidth = 4;  // Thinner beam
@@ -571,15 +4869,24 @@ public class LoginScreen extends JFrame {
                     g2.drawRoundRect(
                             padding/2,
                             padding/2,
-                            getWidth() - padding,
-                            getHeight() - padding,
+                            width - padding,
+                            height - padding,
                             10,
                             10
                     );
                 }
+            });
 
-                super.paintComponent(g2);
-                g2.dispose();
+            private final Diagnostics.Histogram paintTime = DIAGNOSTICS.paintTime("logo");
+
+            @Override
+            protected void paintComponent(Graphics g) {
+                long start = System.nanoTime();
+                if (renderQuality.glow()) {
+                    glow.draw(g, this, getWidth(), getHeight(), null);
+                }
+                super.paintComponent(g);
+                paintTime.record(System.nanoTime() - start);
             }
         };
     }
@@ -587,18 +4894,19 @@ public class LoginScreen extends JFrame {
     private JLabel createAnimatedQuoteLabel() {
         JLabel quoteLabel = new JLabel("<html><div style='text-align: center; width: 300px;'>" +
                 "Bringing you the experience that you deserve</div></html>") {
+            private static final long FADE_NANOS = 1_000_000_000L;
             private float alpha = 0f;
-            private Timer fadeTimer;
+            private long fadeStart;
 
             {
-                fadeTimer = new Timer(50, e -> {
-                    alpha = Math.min(1f, alpha + 0.05f);
-                    if (alpha >= 1f) {
-                        ((Timer)e.getSource()).stop();
+                animationClock.startTransition(now -> {
+                    if (fadeStart == 0) {
+                        fadeStart = now;
                     }
-                    repaint();
+                    alpha = Math.min(1f, (float) (now - fadeStart) / FADE_NANOS);
+                    animationClock.repaint(this);
+                    return alpha < 1f;
                 });
-                fadeTimer.start();
             }
 
             @Override
@@ -610,32 +4918,33 @@ public class LoginScreen extends JFrame {
             }
         };
 
-        quoteLabel.setForeground(new Color(156, 163, 175));
+        quoteLabel.setForeground(Styles.TEXT_MUTED);
         quoteLabel.setHorizontalAlignment(SwingConstants.CENTER);
-        quoteLabel.setFont(new Font("SansSerif", Font.ITALIC, 14));
+        quoteLabel.setFont(Styles.QUOTE_FONT);
         return quoteLabel;
     }
 
     private JPanel createRightPanel() {
         JPanel panel = new JPanel(new BorderLayout()) {
-            @Override
-            protected void paintComponent(Graphics g) {
-                Graphics2D g2 = (Graphics2D) g.create();
-                g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            private final RenderCache glass = new RenderCache((g2, width, height) -> {
+                renderQuality.applyTo(g2);
 
                 // Create glass-like effect
                 g2.setColor(new Color(24, 31, 46, 200));
-                g2.fill(new RoundRectangle2D.Float(0, 0, getWidth(), getHeight(), CORNER_RADIUS, CORNER_RADIUS));
+                g2.fill(new RoundRectangle2D.Float(0, 0, width, height, CORNER_RADIUS, CORNER_RADIUS));
 
                 // Add subtle gradient overlay
                 GradientPaint glassEffect = new GradientPaint(
                         0, 0, new Color(255, 255, 255, 15),
-                        0, getHeight(), new Color(255, 255, 255, 0)
+                        0, height, new Color(255, 255, 255, 0)
                 );
                 g2.setPaint(glassEffect);
-                g2.fill(new RoundRectangle2D.Float(0, 0, getWidth(), getHeight(), CORNER_RADIUS, CORNER_RADIUS));
+                g2.fill(new RoundRectangle2D.Float(0, 0, width, height, CORNER_RADIUS, CORNER_RADIUS));
+            });
 
-                g2.dispose();
+            @Override
+            protected void paintComponent(Graphics g) {
+                glass.draw(g, this, getWidth(), getHeight(), null);
             }
         };
         panel.setOpaque(false);
@@ -660,29 +4969,30 @@ public class LoginScreen extends JFrame {
 
     private JLabel createAnimatedHeader() {
         JLabel headerLabel = new JLabel("Patch Notes") {
-            @Override
-            protected void paintComponent(Graphics g) {
-                Graphics2D g2 = (Graphics2D) g.create();
-                g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            private final RenderCache shadowText = new RenderCache((g2, width, height) -> {
+                renderQuality.applyTo(g2);
                 g2.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
 
                 String text = getText();
-                g2.setFont(new Font("SansSerif", Font.BOLD, 24));
+                g2.setFont(Styles.TITLE_FONT);
                 FontMetrics fm = g2.getFontMetrics();
                 int textX = 0;
                 int textY = fm.getAscent();
 
                 // 3D effect shadow layers
                 for (int i = 4; i > 0; i--) {
-                    g2.setColor(new Color(0, 0, 0, 50));
+                    g2.setColor(Styles.SHADOW);
                     g2.drawString(text, textX + i, textY + i);
                 }
 
                 // Main text
                 g2.setColor(Color.WHITE);
                 g2.drawString(text, textX, textY);
+            });
 
-                g2.dispose();
+            @Override
+            protected void paintComponent(Graphics g) {
+                shadowText.draw(g, this, getWidth(), getHeight(), getText());
             }
         };
 
@@ -691,37 +5001,14 @@ public class LoginScreen extends JFrame {
     }
 
     private JScrollPane createPatchNotesScrollPane() {
-        JTextArea patchNotes = new JTextArea();
-        patchNotes.setEditable(false);
-        patchNotes.setLineWrap(true);
-        patchNotes.setWrapStyleWord(true);
-        patchNotes.setBackground(new Color(0, 0, 0, 0));
-        patchNotes.setForeground(new Color(200, 200, 200));
-        patchNotes.setFont(new Font("SansSerif", Font.PLAIN, 14));
-        patchNotes.setBorder(new EmptyBorder(PAD, 0, 0, 0));
-        patchNotes.setText(
-                "November 30, 2024 - Update v1.0.0\n\n" +
-                        "New Features:\n" +
-                        "• Added custom login screen\n" +
-                        "• Implemented new user interface\n" +
-                        "• Enhanced graphics system\n\n" +
-                        "Improvements:\n" +
-                        "• Better performance optimization\n" +
-                        "• Updated client stability\n" +
-                        "• Improved memory management\n" +
-                        "• Refined combat balancing mechanics\n\n" +
-                        "Bug Fixes:\n" +
-                        "• Fixed various crash issues\n" +
-                        "• Resolved login connectivity problems\n" +
-                        "• Fixed animation glitches\n" +
-                        "• Fixed Zulrah behavior and mechanics\n" +
-                        "• Corrected Bandosian Might calculation bug\n" +
-                        "• Addressed item duplication exploit\n" +
-                        "• Resolved NPC pathing issues in raids\n" +
-                        "• And more!"
-        );
-
-        JScrollPane scrollPane = new JScrollPane(patchNotes) {
+        patchNotesView = new PatchNotesView(() -> loadPatchNotes(patchNotesNextPage));
+        try {
+            loadPatchNotes(new URL(PATCH_NOTES_URL));
+        } catch (MalformedURLException e) {
+            patchNotesView.addEntries(fallbackPatchNotes());
+        }
+
+        JScrollPane scrollPane = new JScrollPane(patchNotesView) {
             @Override
             public JScrollBar createVerticalScrollBar() {
                 return new JScrollBar(JScrollBar.VERTICAL) {
@@ -760,6 +5047,63 @@ public class LoginScreen extends JFrame {
         return scrollPane;
     }
 
+    /**
+     * Fetches one page of the patch notes feed and appends it. Only one page loads at a time; if the
+     * first page can't be fetched the notes bundled with this release are shown instead.
+     */
+    private void loadPatchNotes(URL page) {
+        if (patchNotesLoading || page == null) {
+            return;
+        }
+        patchNotesLoading = true;
+
+        new SwingWorker<PatchNotesFeed.Page, Void>() {
+            @Override
+            protected PatchNotesFeed.Page doInBackground() throws IOException {
+                return PatchNotesFeed.fetch(page);
+            }
+
+            @Override
+            protected void done() {
+                patchNotesLoading = false;
+                try {
+                    PatchNotesFeed.Page result = get();
+                    patchNotesNextPage = result.next;
+                    patchNotesView.addEntries(result.entries);
+                } catch (Exception e) {
+                    log.warn("Failed to load patch notes from {}", page, e);
+                    if (patchNotesView.entryCount() == 0) {
+                        patchNotesView.addEntries(fallbackPatchNotes());
+                    }
+                }
+            }
+        }.execute();
+    }
+
+    private static List<PatchNotesFeed.Entry> fallbackPatchNotes() {
+        List<PatchNotesFeed.Entry> entries = new ArrayList<>();
+        entries.add(new PatchNotesFeed.Entry("November 30, 2024 - Update v1.0.0",
+                "New Features:\n" +
+                "• Added custom login screen\n" +
+                "• Implemented new user interface\n" +
+                "• Enhanced graphics system\n\n" +
+                "Improvements:\n" +
+                "• Better performance optimization\n" +
+                "• Updated client stability\n" +
+                "• Improved memory management\n" +
+                "• Refined combat balancing mechanics\n\n" +
+                "Bug Fixes:\n" +
+                "• Fixed various crash issues\n" +
+                "• Resolved login connectivity problems\n" +
+                "• Fixed animation glitches\n" +
+                "• Fixed Zulrah behavior and mechanics\n" +
+                "• Corrected Bandosian Might calculation bug\n" +
+                "• Addressed item duplication exploit\n" +
+                "• Resolved NPC pathing issues in raids\n" +
+                "• And more!"));
+        return entries;
+    }
+
     private JPanel createNavigationPanel() {
         JPanel navPanel = new JPanel(new GridLayout(2, 3, 10, 10));
         navPanel.setOpaque(false);
@@ -783,19 +5127,33 @@ public class LoginScreen extends JFrame {
 
     private JButton createNavButton(String text, String url) {
         JButton button = new JButton(text) {
+            private final Diagnostics.Histogram paintTime = DIAGNOSTICS.paintTime("navButtons");
+            private final StaticText label = new StaticText(text, Styles.NAV_FONT);
+            private final RoundRectangle2D.Float shape = new RoundRectangle2D.Float();
             private float hoverState = 0f;
-            public Timer hoverTimer;
+            private final AnimationClock.Animation hoverAnimation = now -> {
+                if (getModel().isRollover() && hoverState < 1f) {
+                    hoverState = Math.min(1f, hoverState + 0.1f);
+                    animationClock.repaint(this);
+                    return true;
+                } else if (!getModel().isRollover() && hoverState > 0f) {
+                    hoverState = Math.max(0f, hoverState - 0.1f);
+                    animationClock.repaint(this);
+                    return true;
+                }
+                return false;
+            };
 
             {
-                hoverTimer = new Timer(16, e -> {
-                    if (getModel().isRollover() && hoverState < 1f) {
-                        hoverState = Math.min(1f, hoverState + 0.1f);
-                        repaint();
-                    } else if (!getModel().isRollover() && hoverState > 0f) {
-                        hoverState = Math.max(0f, hoverState - 0.1f);
-                        repaint();
-                    } else {
-                        ((Timer)e.getSource()).stop();
+                addMouseListener(new MouseAdapter() {
+                    @Override
+                    public void mouseEntered(MouseEvent e) {
+                        animationClock.startTransition(hoverAnimation);
+                    }
+
+                    @Override
+                    public void mouseExited(MouseEvent e) {
+                        animationClock.startTransition(hoverAnimation);
                     }
                 });
             }
@@ -803,39 +5161,40 @@ public class LoginScreen extends JFrame {
             @Override
             protected void paintComponent(Graphics g) {
                 Graphics2D g2 = (Graphics2D) g.create();
-                g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+                renderQuality.applyTo(g2);
 
                 Color bgColor = getModel().isPressed() ?
-                        new Color(0, 0, 0, 100) :
-                        new Color(255, 255, 255, (int)(20 * hoverState));
+                        Styles.PRESSED_OVERLAY :
+                        Styles.white((int)(20 * hoverState));
 
                 g2.setColor(bgColor);
-                g2.fill(new RoundRectangle2D.Float(0, 0, getWidth(), getHeight(), 8, 8));
+                shape.setRoundRect(0, 0, getWidth(), getHeight(), 8, 8);
+                g2.fill(shape);
 
                 // Glowing border effect
-                g2.setColor(new Color(255, 255, 255, 30 + (int)(50 * hoverState)));
-                g2.setStroke(new BasicStroke(1f));
-                g2.draw(new RoundRectangle2D.Float(0, 0, getWidth()-1, getHeight()-1, 8, 8));
+                g2.setColor(Styles.white(30 + (int)(50 * hoverState)));
+                g2.setStroke(Styles.HAIRLINE);
+                shape.setRoundRect(0, 0, getWidth()-1, getHeight()-1, 8, 8);
+                g2.draw(shape);
 
                 // Text with glow effect
-                if (hoverState > 0) {
-                    g2.setColor(new Color(255, 255, 255, (int)(50 * hoverState)));
-                    g2.setFont(new Font("SansSerif", Font.BOLD, 12));
-                    FontMetrics fm = g2.getFontMetrics();
-                    int x = (getWidth() - fm.stringWidth(text)) / 2;
-                    int y = ((getHeight() - fm.getHeight()) / 2) + fm.getAscent();
-                    g2.drawString(text, x+1, y+1);
+                if (hoverState > 0 && renderQuality.glow()) {
+                    g2.setColor(Styles.white((int)(50 * hoverState)));
+                    label.drawCentered(g2, getWidth(), getHeight(), 1, 1);
                 }
 
                 g2.setColor(Color.WHITE);
-                g2.setFont(new Font("SansSerif", Font.BOLD, 12));
-                FontMetrics fm = g2.getFontMetrics();
-                int x = (getWidth() - fm.stringWidth(text)) / 2;
-                int y = ((getHeight() - fm.getHeight()) / 2) + fm.getAscent();
-                g2.drawString(text, x, y);
+                label.drawCentered(g2, getWidth(), getHeight(), 0, 0);
 
                 g2.dispose();
             }
+
+            @Override
+            public void paint(Graphics g) {
+                long start = System.nanoTime();
+                super.paint(g);
+                paintTime.record(System.nanoTime() - start);
+            }
         };
 
         button.setPreferredSize(new Dimension(0, 35));
@@ -844,13 +5203,6 @@ public class LoginScreen extends JFrame {
         button.setFocusPainted(false);
         button.setCursor(new Cursor(Cursor.HAND_CURSOR));
 
-        button.addMouseListener(new MouseAdapter() {
-            @Override
-            public void mouseEntered(MouseEvent e) {
-               // ((JButton)e.getSource()).hoverTimer.start();
-            }
-        });
-
         button.addActionListener(e -> {
             try {
                 Desktop.getDesktop().browse(new URI(url));
@@ -864,39 +5216,42 @@ public class LoginScreen extends JFrame {
 
     private JButton createPlayButton() {
         JButton playButton = new JButton() {
+            private final Diagnostics.Histogram paintTime = DIAGNOSTICS.paintTime("playButton");
+            private final RoundRectangle2D.Float shape = new RoundRectangle2D.Float();
+            private GradientPaint gradient;
             private boolean isLoading = false;
             private float loadingAngle = 0;
-            private Timer loadingTimer;
-
-            {
-                loadingTimer = new Timer(16, e -> {
-                    if (isLoading) {
-                        loadingAngle += 10;
-                        if (loadingAngle >= 360) {
-                            loadingAngle = 0;
-                        }
-                        repaint();
+            private final AnimationClock.Animation loadingAnimation = now -> {
+                if (isLoading) {
+                    loadingAngle += 10;
+                    if (loadingAngle >= 360) {
+                        loadingAngle = 0;
                     }
-                });
-            }
+                    animationClock.repaint(this);
+                }
+                return isLoading;
+            };
 
             @Override
             protected void paintComponent(Graphics g) {
                 Graphics2D g2 = (Graphics2D) g.create();
-                g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+                renderQuality.applyTo(g2);
 
                 // Button gradient
-                GradientPaint gradient = new GradientPaint(
-                        0, 0, buttonStartColor,
-                        getWidth(), 0, buttonEndColor
-                );
+                if (gradient == null || gradient.getPoint2().getX() != getWidth()) {
+                    gradient = new GradientPaint(
+                            0, 0, buttonStartColor,
+                            getWidth(), 0, buttonEndColor
+                    );
+                }
                 g2.setPaint(gradient);
-                g2.fill(new RoundRectangle2D.Float(0, 0, getWidth(), getHeight(), 15, 15));
+                shape.setRoundRect(0, 0, getWidth(), getHeight(), 15, 15);
+                g2.fill(shape);
 
                 if (isLoading) {
                     int size = Math.min(getWidth(), getHeight()) / 4;
                     g2.setColor(Color.WHITE);
-                    g2.setStroke(new BasicStroke(3));
+                    g2.setStroke(Styles.SPINNER);
                     g2.rotate(Math.toRadians(loadingAngle),
                             getWidth() / 2,
                             getHeight() / 2);
@@ -905,23 +5260,25 @@ public class LoginScreen extends JFrame {
                             size, size, 0, 270);
                 } else {
                     g2.setColor(Color.WHITE);
-                    g2.setFont(new Font("SansSerif", Font.BOLD, 20));
-                    FontMetrics fm = g2.getFontMetrics();
-                    String text = "PLAY NOW";
-                    int x = (getWidth() - fm.stringWidth(text)) / 2;
-                    int y = ((getHeight() - fm.getHeight()) / 2) + fm.getAscent();
-                    g2.drawString(text, x, y);
+                    PLAY_LABEL.drawCentered(g2, getWidth(), getHeight(), 0, 0);
                 }
 
                 g2.dispose();
             }
 
+            @Override
+            public void paint(Graphics g) {
+                long start = System.nanoTime();
+                super.paint(g);
+                paintTime.record(System.nanoTime() - start);
+            }
+
             public void setLoading(boolean loading) {
                 isLoading = loading;
                 if (loading) {
-                    loadingTimer.start();
+                    animationClock.start(loadingAnimation);
                 } else {
-                    loadingTimer.stop();
+                    animationClock.stop(loadingAnimation);
                 }
                 repaint();
             }
@@ -936,15 +5293,25 @@ public class LoginScreen extends JFrame {
             playButton.setEnabled(false);
              //playButton.setLoading(true);  // Use playButton directly instead of casting e.getSource()
             new Thread(() -> {
+                boolean started = false;
                 try {
                     if (onPlayCallback != null) {
                         onPlayCallback.run();
                     }
+                    started = true;
+                } catch (RuntimeException ex) {
+                    log.error("Failed to start the client", ex);
                 } finally {
+                    boolean close = started;
                     SwingUtilities.invokeLater(() -> {
                        // playButton.setLoading(false);  // Use playButton directly
                         playButton.setEnabled(true);
-                        dispose();
+                        if (close) {
+                            dispose();
+                        } else {
+                            // Keep the launcher open so PLAY can be tried again
+                            showStyledMessage("Failed to start the client.");
+                        }
                     });
                 }
             }).start();
@@ -955,27 +5322,26 @@ public class LoginScreen extends JFrame {
 
     private JButton createMinimizeButton() {
         JButton minimizeButton = new JButton("−") {
+            private final RoundRectangle2D.Float shape = new RoundRectangle2D.Float();
+
             @Override
             protected void paintComponent(Graphics g) {
                 Graphics2D g2 = (Graphics2D) g.create();
-                g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+                renderQuality.applyTo(g2);
 
                 if (getModel().isPressed()) {
-                    g2.setColor(new Color(255, 255, 255, 30));
+                    g2.setColor(Styles.white(30));
                 } else if (getModel().isRollover()) {
-                    g2.setColor(new Color(255, 255, 255, 20));
+                    g2.setColor(Styles.white(20));
                 } else {
-                    g2.setColor(new Color(255, 255, 255, 10));
+                    g2.setColor(Styles.white(10));
                 }
 
-                g2.fill(new RoundRectangle2D.Float(0, 0, getWidth(), getHeight(), 10, 10));
+                shape.setRoundRect(0, 0, getWidth(), getHeight(), 10, 10);
+                g2.fill(shape);
 
                 g2.setColor(Color.WHITE);
-                g2.setFont(new Font("SansSerif", Font.BOLD, 18));
-                FontMetrics fm = g2.getFontMetrics();
-                int x = (getWidth() - fm.stringWidth("−")) / 2;
-                int y = ((getHeight() - fm.getHeight()) / 2) + fm.getAscent();
-                g2.drawString("−", x, y);
+                MINIMIZE_LABEL.drawCentered(g2, getWidth(), getHeight(), 0, 0);
 
                 g2.dispose();
             }
@@ -993,27 +5359,26 @@ public class LoginScreen extends JFrame {
 
     private JButton createCloseButton() {
         JButton closeButton = new JButton("×") {
+            private final RoundRectangle2D.Float shape = new RoundRectangle2D.Float();
+
             @Override
             protected void paintComponent(Graphics g) {
                 Graphics2D g2 = (Graphics2D) g.create();
-                g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+                renderQuality.applyTo(g2);
 
                 if (getModel().isPressed()) {
-                    g2.setColor(new Color(255, 0, 0, 100));
+                    g2.setColor(Styles.red(100));
                 } else if (getModel().isRollover()) {
-                    g2.setColor(new Color(255, 0, 0, 70));
+                    g2.setColor(Styles.red(70));
                 } else {
-                    g2.setColor(new Color(255, 0, 0, 50));
+                    g2.setColor(Styles.red(50));
                 }
 
-                g2.fill(new RoundRectangle2D.Float(0, 0, getWidth(), getHeight(), 10, 10));
+                shape.setRoundRect(0, 0, getWidth(), getHeight(), 10, 10);
+                g2.fill(shape);
 
                 g2.setColor(Color.WHITE);
-                g2.setFont(new Font("SansSerif", Font.BOLD, 20));
-                FontMetrics fm = g2.getFontMetrics();
-                int x = (getWidth() - fm.stringWidth("×")) / 2;
-                int y = ((getHeight() - fm.getHeight()) / 2) + fm.getAscent();
-                g2.drawString("×", x, y);
+                CLOSE_LABEL.drawCentered(g2, getWidth(), getHeight(), 0, 0);
 
                 g2.dispose();
             }
@@ -1024,7 +5389,7 @@ public class LoginScreen extends JFrame {
         closeButton.setContentAreaFilled(false);
         closeButton.setFocusPainted(false);
         closeButton.setCursor(new Cursor(Cursor.HAND_CURSOR));
-        closeButton.addActionListener(e -> System.exit(0));
+        closeButton.addActionListener(e -> exit());
 
         return closeButton;
     }
@@ -1060,12 +5425,43 @@ public class LoginScreen extends JFrame {
         Action escapeAction = new AbstractAction() {
             @Override
             public void actionPerformed(ActionEvent e) {
-                System.exit(0);
+                exit();
             }
         };
         getRootPane().getInputMap(JComponent.WHEN_IN_FOCUSED_WINDOW)
                 .put(escapeKeyStroke, "ESCAPE");
         getRootPane().getActionMap().put("ESCAPE", escapeAction);
+
+        KeyStroke diagnosticsKeyStroke = KeyStroke.getKeyStroke(KeyEvent.VK_D,
+                InputEvent.CTRL_DOWN_MASK | InputEvent.SHIFT_DOWN_MASK, false);
+        Action diagnosticsAction = new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                try {
+                    File file = DIAGNOSTICS.dump(new File(DIAGNOSTICS_FILE));
+                    updateStatusLabel.setText("Diagnostics written to " + file.getName());
+                    updateStatusLabel.setForeground(Color.WHITE);
+                    updateStatusLabel.setVisible(true);
+                } catch (IOException ex) {
+                    log.error("Failed to write diagnostics", ex);
+                }
+            }
+        };
+        getRootPane().getInputMap(JComponent.WHEN_IN_FOCUSED_WINDOW)
+                .put(diagnosticsKeyStroke, "DUMP_DIAGNOSTICS");
+        getRootPane().getActionMap().put("DUMP_DIAGNOSTICS", diagnosticsAction);
+
+        KeyStroke verifyKeyStroke = KeyStroke.getKeyStroke(KeyEvent.VK_V,
+                InputEvent.CTRL_DOWN_MASK | InputEvent.SHIFT_DOWN_MASK, false);
+        Action verifyAction = new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                verifyInstallation(true);
+            }
+        };
+        getRootPane().getInputMap(JComponent.WHEN_IN_FOCUSED_WINDOW)
+                .put(verifyKeyStroke, "VERIFY_FILES");
+        getRootPane().getActionMap().put("VERIFY_FILES", verifyAction);
     }
 
     private JLabel createVersionLabel() {
@@ -1090,54 +5486,132 @@ public class LoginScreen extends JFrame {
             @Override
             protected void paintComponent(Graphics g) {
                 Graphics2D g2 = (Graphics2D) g.create();
-                g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-                g2.setColor(hover ? new Color(176, 183, 195) : new Color(156, 163, 175));
+                renderQuality.applyTo(g2);
+                g2.setColor(hover ? Styles.TEXT_MUTED_HOVER : Styles.TEXT_MUTED);
                 super.paintComponent(g2);
                 g2.dispose();
             }
         };
         versionLabel.setHorizontalAlignment(SwingConstants.CENTER);
-        versionLabel.setFont(new Font("SansSerif", Font.PLAIN, 12));
+        versionLabel.setFont(Styles.SMALL_FONT);
         versionLabel.setCursor(new Cursor(Cursor.HAND_CURSOR));
         return versionLabel;
     }
 
-    private BufferedImage createGradientLogo(BufferedImage original) {
-        BufferedImage gradient = new BufferedImage(
-                original.getWidth(),
-                original.getHeight(),
-                BufferedImage.TYPE_INT_ARGB
-        );
+    /**
+     * The render quality tier currently in use, for diagnostics.
+     */
+    RenderQuality.Tier getRenderQuality() {
+        return renderQuality.getTier();
+    }
 
-        Graphics2D g2d = gradient.createGraphics();
-        g2d.drawImage(original, 0, 0, null);
+    private void onRenderQualityChanged(RenderQuality.Tier tier) {
+        DIAGNOSTICS.gauge("renderQuality", tier.name());
+        switch (tier) {
+            case FULL:
+                particles.setActive(particles.size());
+                break;
+            case STATIC:
+                particles.setActive(0);
+                break;
+            default:
+                particles.setActive(particles.size() / 2);
+                break;
+        }
 
-        // Add gradient overlay
-        GradientPaint overlay = new GradientPaint(
-                0, 0, new Color(147, 51, 234, 30),
-                gradient.getWidth(), gradient.getHeight(), new Color(236, 72, 153, 30)
-        );
-        g2d.setPaint(overlay);
-        g2d.fillRect(0, 0, gradient.getWidth(), gradient.getHeight());
-        g2d.dispose();
+        if (particleAnimation != null) {
+            if (tier == RenderQuality.Tier.STATIC) {
+                animationClock.stop(particleAnimation);
+            } else {
+                animationClock.start(particleAnimation);
+            }
+        }
 
-        return gradient;
+        // Antialiasing and glow are baked into the cached layers
+        RenderCache.invalidateAll();
+        getContentPane().repaint();
+    }
+
+    private void exit() {
+        if (prefetch != null) {
+            prefetch.cancel();
+        }
+        System.exit(0);
     }
 
     @Override
     public void dispose() {
-        if (particleTimer != null) {
-            particleTimer.stop();
+        if (prefetch != null) {
+            prefetch.cancel(); // No-op once PLAY has consumed the result
         }
+        animationClock.dispose();
+        renderQuality.dispose();
+        DIAGNOSTICS.uninstallStallDetector();
+        UPDATE_SERVICE.removeListener(updateListener);
+        UIManager.removePropertyChangeListener(themeListener);
         super.dispose();
     }
 
     public static void init(Runnable onPlayCallback) {
+        init(onPlayCallback, null);
+    }
+
+    /**
+     * Records the program arguments so an update can relaunch the client with them. Call from
+     * {@code main} before {@link #init}.
+     */
+    public static void setLaunchArguments(String... args) {
+        Relauncher.setLaunchArguments(args);
+    }
+
+    /**
+     * Like {@link #init(Runnable)}, but starts {@code prefetch} on a background thread as soon as the
+     * launcher window opens and hands its result to {@code onPlay} when PLAY is clicked. The prefetch
+     * is cancelled if the launcher is closed without playing. If both the prefetch and the cold
+     * retry on PLAY fail, {@code onPlay} isn't called; the launcher stays open with an error and
+     * the next PLAY tries again.
+     */
+    public static <T> void init(Callable<T> prefetch, Consumer<T> onPlay) {
+        Prefetch<T> warmup = new Prefetch<>(prefetch);
+        init(() -> {
+            T result;
+            try {
+                result = warmup.await();
+            } catch (Exception e) {
+                throw new IllegalStateException("Client prefetch failed", e);
+            }
+            onPlay.accept(result);
+        }, warmup);
+    }
+
+    private static void init(Runnable onPlayCallback, Prefetch<?> prefetch) {
+        // Start talking to the update server while the window is being built. The first check waits
+        // up to a second for the latency probe, so it goes to the nearest mirror
+        MIRRORS.probeLatency(VERSION_URL)
+                .completeOnTimeout(null, FIRST_CHECK_PROBE_WAIT_MS, TimeUnit.MILLISECONDS)
+                .whenComplete((ignored, error) -> UPDATE_SERVICE.check());
+        ClassDataArchive.buildIfMissing();
+        UPDATE_SERVICE.startPolling(UPDATE_POLL_INTERVAL_MINUTES, TimeUnit.MINUTES);
+
+        if (Boolean.getBoolean("valkarin.diagnostics")) {
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    DIAGNOSTICS.dump(new File(DIAGNOSTICS_FILE));
+                } catch (IOException e) {
+                    log.warn("Failed to write diagnostics on exit", e);
+                }
+            }, "launcher-diagnostics"));
+        }
+
         SwingUtilities.invokeLater(() -> {
             if (INSTANCE != null) {
                 INSTANCE.dispose();
             }
-            INSTANCE = new LoginScreen(onPlayCallback);
+            DIAGNOSTICS.gauge("renderQuality", RenderQuality.Tier.FULL.name());
+            if (Boolean.getBoolean("valkarin.diagnostics")) {
+                DIAGNOSTICS.installStallDetector();
+            }
+            INSTANCE = new LoginScreen(onPlayCallback, prefetch);
             INSTANCE.setVisible(true);
         });
     }
@@ -0,0 +1,55 @@
+package net.runelite.client.ui;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Parsing a manifest of hashed entries, as every update check that finds a new version does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ManifestBenchmark {
+    @Param({"100", "5000"})
+    private int entries;
+
+    private File manifest;
+
+    @Setup
+    public void setUp() throws IOException {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < entries; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"path\":\"lib/file-").append(i).append(".jar\",\"size\":").append(1024 + i)
+                    .append(",\"sha256\":\"").append(String.format("%064x", i)).append("\"}");
+        }
+        json.append(']');
+        manifest = File.createTempFile("manifest", ".json");
+        Files.write(manifest.toPath(), json.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    @TearDown
+    public void tearDown() {
+        manifest.delete();
+    }
+
+    @Benchmark
+    public List<LoginScreen.ManifestEntry> parse() throws IOException {
+        return LoginScreen.ManifestEntry.parse(manifest);
+    }
+}
@@ -0,0 +1,92 @@
+package net.runelite.client.ui;
+
+import java.awt.Color;
+import java.awt.GradientPaint;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Headless paints of the launcher's static components. The window's own panels are anonymous
+ * classes that need a display, so their shared building blocks are measured instead: the patch
+ * notes list, and the {@link LoginScreen.RenderCache} that backs the background panels.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PaintBenchmark {
+    private static final int WIDTH = 400;
+    private static final int HEIGHT = 500;
+
+    @Param({"100", "10000"})
+    private int entries;
+
+    private LoginScreen.PatchNotesView patchNotes;
+    private LoginScreen.RenderCache background;
+    private BufferedImage frame;
+    private Graphics2D g;
+    private int scroll;
+
+    @Setup
+    public void setUp() {
+        List<LoginScreen.PatchNotesFeed.Entry> page = new ArrayList<>();
+        for (int i = 0; i < entries; i++) {
+            page.add(new LoginScreen.PatchNotesFeed.Entry("Update " + i,
+                    "New Features:\n• Reworked the world map so that it wraps over several lines\n\n• Fixes"));
+        }
+        patchNotes = new LoginScreen.PatchNotesView(null);
+        patchNotes.addEntries(page);
+        patchNotes.setBounds(0, 0, WIDTH, HEIGHT);
+        patchNotes.setSize(WIDTH, patchNotes.getPreferredSize().height);
+
+        background = new LoginScreen.RenderCache((g2, width, height) -> {
+            g2.setPaint(new GradientPaint(0, 0, new Color(17, 24, 39), 0, height, Color.BLACK));
+            g2.fillRect(0, 0, width, height);
+        });
+
+        frame = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_ARGB);
+        g = frame.createGraphics();
+    }
+
+    @TearDown
+    public void tearDown() {
+        g.dispose();
+    }
+
+    /**
+     * One viewport of patch notes, scrolled a little further each call so wrapped layouts are
+     * evicted and rebuilt as they would be while scrolling.
+     */
+    @Benchmark
+    public void patchNotesViewport() {
+        int y = scroll;
+        scroll = (scroll + 97) % Math.max(1, patchNotes.getHeight() - HEIGHT);
+        Graphics2D view = (Graphics2D) g.create();
+        view.translate(0, -y);
+        view.setClip(0, y, WIDTH, HEIGHT);
+        patchNotes.paint(view);
+        view.dispose();
+    }
+
+    @Benchmark
+    public void backgroundBlit() {
+        background.draw(g, patchNotes, WIDTH, HEIGHT, null);
+    }
+
+    @Benchmark
+    public void backgroundRebuild() {
+        LoginScreen.RenderCache.invalidateAll();
+        background.draw(g, patchNotes, WIDTH, HEIGHT, null);
+    }
+}
@@ -0,0 +1,54 @@
+package net.runelite.client.ui;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * One animation frame of the background particles: the update that moves them and records dirty
+ * regions, and the paint into an offscreen frame the size of the launcher window.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ParticleBenchmark {
+    @Param({"50", "200"})
+    private int count;
+
+    private LoginScreen.ParticleField particles;
+    private final LoginScreen.DirtyRegion dirty = new LoginScreen.DirtyRegion();
+    private final BufferedImage frame = new BufferedImage(1000, 600, BufferedImage.TYPE_INT_ARGB);
+
+    @Setup
+    public void setUp() {
+        particles = new LoginScreen.ParticleField(count);
+
+        // Particles start below the window; let them rise into view before measuring the paint
+        for (int frame = 0; frame < 200; frame++) {
+            dirty.clear();
+            particles.update(dirty);
+        }
+    }
+
+    @Benchmark
+    public LoginScreen.DirtyRegion update() {
+        dirty.clear();
+        particles.update(dirty);
+        return dirty;
+    }
+
+    @Benchmark
+    public void paint() {
+        Graphics2D g = frame.createGraphics();
+        particles.paint(g);
+        g.dispose();
+    }
+}
@@ -0,0 +1,43 @@
+package net.runelite.client.ui;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RadialGradientPaint;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * The logo resample done on an {@link LoginScreen.AssetPipeline} cache miss.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ScalingBenchmark {
+    @Param({"300", "600"})
+    private int width;
+
+    private BufferedImage source;
+
+    @Setup
+    public void setUp() {
+        source = new BufferedImage(1024, 1024, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = source.createGraphics();
+        g.setPaint(new RadialGradientPaint(512, 512, 512, new float[]{0f, 1f},
+                new Color[]{new Color(147, 51, 234), new Color(236, 72, 153, 0)}));
+        g.fillRect(0, 0, 1024, 1024);
+        g.dispose();
+    }
+
+    @Benchmark
+    public BufferedImage createHighQualityScaledImage() {
+        return LoginScreen.createHighQualityScaledImage(source, width, width);
+    }
+}
@@ -0,0 +1,106 @@
+package net.runelite.client.ui;
+
+import com.sun.net.httpserver.HttpServer;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.file.Files;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * The file download and copy paths. Downloads come from an HTTP server in the same process, so the
+ * numbers show the launcher's own overhead (buffering, hashing, fsync and rename), not the network.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class TransferBenchmark {
+    @Param({"1048576", "16777216"})
+    private int size;
+
+    private byte[] data;
+    private HttpServer server;
+    private URL url;
+    private File directory;
+    private File target;
+    private File partFile;
+
+    @Setup
+    public void setUp() throws IOException {
+        data = new byte[size];
+        new Random(42).nextBytes(data);
+
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/file", exchange -> {
+            exchange.sendResponseHeaders(200, data.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(data);
+            }
+        });
+        server.start();
+        url = new URL("http://127.0.0.1:" + server.getAddress().getPort() + "/file");
+
+        directory = Files.createTempDirectory("transfer").toFile();
+        target = new File(directory, "file.bin");
+        partFile = new File(directory, "file.bin.part");
+    }
+
+    @TearDown
+    public void tearDown() {
+        server.stop(0);
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        directory.delete();
+    }
+
+    /**
+     * Local copy with hashing, as used for patched and decoded outputs.
+     */
+    @Benchmark
+    public LoginScreen.Transfer.Result copy() throws IOException {
+        return LoginScreen.Transfer.toFile(new ByteArrayInputStream(data), target, data.length, null, result -> {
+        });
+    }
+
+    @Benchmark
+    public LoginScreen.Transfer.Result download() throws IOException {
+        HttpURLConnection connection = LoginScreen.openConnection(url);
+        try (InputStream in = connection.getInputStream()) {
+            return LoginScreen.Transfer.toFile(in, target, connection.getContentLengthLong(), null, result -> {
+            });
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    /**
+     * The single-connection update download, including its progress sidecar.
+     */
+    @Benchmark
+    public LoginScreen.Transfer.Result resumableDownload() throws IOException {
+        LoginScreen.ResumableDownload download = new LoginScreen.ResumableDownload(url, partFile);
+        LoginScreen.Transfer.Result result = download.download(null);
+        download.clear();
+        return result;
+    }
+}